@@ -0,0 +1,190 @@
+package com.smartdelivery.apigateway.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.smartdelivery.apigateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.smartdelivery.apigateway.concurrency.ConcurrencyLimiterRegistry;
+import com.smartdelivery.apigateway.dto.BatchRequest;
+import com.smartdelivery.apigateway.dto.BatchResponse;
+import com.smartdelivery.apigateway.filter.AuthenticationFilter;
+import com.smartdelivery.apigateway.ratelimit.RateLimiter;
+import com.smartdelivery.apigateway.security.VerifiedToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the sub-requests of a batch against the gateway's {@code lb://} routes. Sub-requests of one
+ * batch run in parallel up to {@link BatchProperties#getMaxConcurrency()} and are subject to the same
+ * per-route rate and concurrency limits as requests that come through the route filters.
+ * <p>
+ * Route-level filters are not applied, so only routes without any are eligible; everything else
+ * is reported as 404.
+ */
+@Component
+public class BatchExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchExecutor.class);
+
+    private static final Set<HttpMethod> SUPPORTED_METHODS =
+            Set.of(HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final BatchProperties properties;
+    private final RouteLocator routeLocator;
+    private final RateLimiter rateLimiter;
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+
+    public BatchExecutor(BatchProperties properties,
+                         RouteLocator routeLocator,
+                         RateLimiter rateLimiter,
+                         ConcurrencyLimiterRegistry limiterRegistry,
+                         ObjectMapper objectMapper,
+                         WebClient.Builder webClientBuilder,
+                         LoadBalancedExchangeFilterFunction loadBalancerFunction) {
+        this.properties = properties;
+        this.routeLocator = routeLocator;
+        this.rateLimiter = rateLimiter;
+        this.limiterRegistry = limiterRegistry;
+        this.objectMapper = objectMapper;
+        this.webClient = webClientBuilder.filter(loadBalancerFunction).build();
+    }
+
+    /**
+     * @param principal the caller's verified token, or null for an anonymous batch
+     * @param client    key the caller is rate limited by
+     * @return one result per sub-request, in request order
+     */
+    public Mono<List<BatchResponse.Item>> execute(ServerWebExchange exchange, List<BatchRequest.Item> items,
+                                                  VerifiedToken principal, String client) {
+        return Flux.fromIterable(items)
+                .flatMapSequential(item -> execute(exchange, item, principal, client),
+                        Math.max(1, properties.getMaxConcurrency()))
+                .collectList();
+    }
+
+    private Mono<BatchResponse.Item> execute(ServerWebExchange exchange, BatchRequest.Item item,
+                                             VerifiedToken principal, String client) {
+        HttpMethod method = item.getMethod() != null
+                ? HttpMethod.valueOf(item.getMethod().toUpperCase(Locale.ROOT))
+                : HttpMethod.GET;
+        if (!SUPPORTED_METHODS.contains(method) || item.getPath() == null || !item.getPath().startsWith("/")) {
+            return Mono.just(status(item, 400));
+        }
+
+        URI uri;
+        try {
+            uri = exchange.getRequest().getURI().resolve(item.getPath());
+        } catch (IllegalArgumentException e) {
+            return Mono.just(status(item, 400));
+        }
+        if (principal == null && AuthenticationFilter.requiresAuthentication(uri.getPath())) {
+            return Mono.just(status(item, 401));
+        }
+
+        return resolveRoute(exchange, method, uri)
+                .flatMap(route -> forward(route, method, uri, item, principal, client))
+                .switchIfEmpty(Mono.fromSupplier(() -> status(item, 404)));
+    }
+
+    private Mono<Route> resolveRoute(ServerWebExchange exchange, HttpMethod method, URI uri) {
+        ServerWebExchange probe = exchange.mutate()
+                .request(request -> request.method(method).uri(uri))
+                .build();
+        return routeLocator.getRoutes()
+                .filter(route -> "lb".equals(route.getUri().getScheme()) && route.getFilters().isEmpty())
+                .concatMap(route -> Mono.from(route.getPredicate().apply(probe))
+                        .filter(Boolean::booleanValue)
+                        .map(matched -> route))
+                .next();
+    }
+
+    private Mono<BatchResponse.Item> forward(Route route, HttpMethod method, URI uri, BatchRequest.Item item,
+                                             VerifiedToken principal, String client) {
+        if (!rateLimiter.tryAcquire(route.getId(), client).isZero()) {
+            return Mono.just(status(item, 429));
+        }
+        AdaptiveConcurrencyLimiter limiter = limiterRegistry.forRoute(route.getId());
+        if (limiter != null && !limiter.tryAcquire()) {
+            return Mono.just(status(item, 503));
+        }
+
+        URI target = URI.create("http://" + route.getUri().getHost() + uri.getRawPath()
+                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : ""));
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(target)
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (principal != null) {
+                        headers.set("X-Username", principal.username());
+                        headers.set("X-Role", principal.role());
+                    }
+                });
+        if (item.getBody() != null && !item.getBody().isNull()) {
+            request.contentType(MediaType.APPLICATION_JSON).bodyValue(item.getBody());
+        }
+
+        long start = System.nanoTime();
+        return request.exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .map(bytes -> readBody(response.headers().contentType().orElse(null), bytes))
+                        .map(body -> new BatchResponse.Item(item.getId(), response.statusCode().value(), body))
+                        .defaultIfEmpty(status(item, response.statusCode().value())))
+                .timeout(properties.getTimeout())
+                .onErrorResume(TimeoutException.class, e -> Mono.just(status(item, 504)))
+                .onErrorResume(e -> {
+                    log.warn("Batch sub-request {} {} failed: {}", method, uri.getPath(), e.getMessage());
+                    return Mono.just(status(item, 502));
+                })
+                .doOnNext(result -> release(limiter, result.getStatus(), System.nanoTime() - start))
+                .doOnCancel(() -> {
+                    if (limiter != null) {
+                        limiter.onIgnore();
+                    }
+                });
+    }
+
+    private void release(AdaptiveConcurrencyLimiter limiter, int status, long latencyNanos) {
+        if (limiter == null) {
+            return;
+        }
+        if (status == 502 || status == 503 || status == 504) {
+            limiter.onCongestion();
+        } else {
+            limiter.onSuccess(latencyNanos);
+        }
+    }
+
+    private JsonNode readBody(MediaType contentType, byte[] bytes) {
+        if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            try {
+                return objectMapper.readTree(bytes);
+            } catch (IOException e) {
+                log.debug("Batch sub-response is not valid JSON: {}", e.getMessage());
+            }
+        }
+        return TextNode.valueOf(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private static BatchResponse.Item status(BatchRequest.Item item, int status) {
+        return new BatchResponse.Item(item.getId(), status, null);
+    }
+}
@@ -0,0 +1,28 @@
+package com.smartdelivery.apigateway.batch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.batch")
+public class BatchProperties {
+
+    /**
+     * Upper bound on sub-requests in a single batch; larger batches are rejected with 400.
+     */
+    private int maxItems = 20;
+
+    /**
+     * Sub-requests of one batch that may be in flight at the same time.
+     */
+    private int maxConcurrency = 4;
+
+    /**
+     * Per sub-request timeout; an item that exceeds it is reported as 504.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,111 @@
+package com.smartdelivery.apigateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Buffers the downstream body into a byte array and hands it to a {@link BodyHandler}, which
+ * decides what is finally written to the client. Only {@code writeWith} is intercepted, so
+ * streaming responses written with {@code writeAndFlushWith} pass through untouched.
+ * <p>
+ * Bodies larger than {@code maxBytes}, judged by {@code Content-Length} or by counting bytes as they
+ * arrive, are not captured: the overflow callback runs and the body is written through as it streams.
+ */
+public class BodyCapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final int maxBytes;
+    private final Runnable onOverflow;
+    private final BodyHandler handler;
+
+    public BodyCapturingResponseDecorator(ServerHttpResponse delegate, int maxBytes, Runnable onOverflow,
+                                          BodyHandler handler) {
+        super(delegate);
+        this.maxBytes = maxBytes;
+        this.onOverflow = onOverflow;
+        this.handler = handler;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (getDelegate().getHeaders().getContentLength() > maxBytes) {
+            onOverflow.run();
+            return getDelegate().writeWith(body);
+        }
+        SizeLimit limit = new SizeLimit(maxBytes);
+        return Flux.from(body)
+                .map(DataBuffer.class::cast)
+                // One list with the whole body, or, past the limit, the buffers so far followed by one list per buffer.
+                .bufferUntil(limit)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .switchOnFirst((first, lists) -> {
+                    if (limit.exceeded()) {
+                        onOverflow.run();
+                        return getDelegate().writeWith(lists.concatMapIterable(list -> list));
+                    }
+                    return lists.next()
+                            .map(BodyCapturingResponseDecorator::toBytes)
+                            .defaultIfEmpty(new byte[0])
+                            .flatMap(bytes -> handler.handle(getDelegate(), bytes));
+                })
+                .then();
+    }
+
+    public static Mono<Void> write(ServerHttpResponse response, byte[] body) {
+        if (body.length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static byte[] toBytes(List<DataBuffer> buffers) {
+        int size = 0;
+        for (DataBuffer buffer : buffers) {
+            size += buffer.readableByteCount();
+        }
+        byte[] bytes = new byte[size];
+        int offset = 0;
+        for (DataBuffer buffer : buffers) {
+            int length = buffer.readableByteCount();
+            buffer.read(bytes, offset, length);
+            offset += length;
+            DataBufferUtils.release(buffer);
+        }
+        return bytes;
+    }
+
+    private static final class SizeLimit implements Predicate<DataBuffer> {
+
+        private final int maxBytes;
+        private long seen;
+
+        SizeLimit(int maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public boolean test(DataBuffer buffer) {
+            seen += buffer.readableByteCount();
+            return exceeded();
+        }
+
+        boolean exceeded() {
+            return seen > maxBytes;
+        }
+    }
+
+    @FunctionalInterface
+    public interface BodyHandler {
+        /**
+         * @param response the undecorated response; the handler is responsible for writing to it
+         */
+        Mono<Void> handle(ServerHttpResponse response, byte[] body);
+    }
+}
@@ -0,0 +1,19 @@
+package com.smartdelivery.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Fully buffered downstream response that can be replayed to other clients.
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag,
+                             long createdAtNanos, long expiresAtNanos) {
+
+    public boolean isExpired(long nowNanos) {
+        return nowNanos - expiresAtNanos >= 0;
+    }
+
+    public long ageSeconds(long nowNanos) {
+        return (nowNanos - createdAtNanos) / 1_000_000_000L;
+    }
+}
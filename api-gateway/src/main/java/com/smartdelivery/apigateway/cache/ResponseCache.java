@@ -0,0 +1,180 @@
+package com.smartdelivery.apigateway.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-route bounded stores of buffered GET responses, keyed by path, query and authenticated user.
+ */
+@Component
+public class ResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteStore> stores = new ConcurrentHashMap<>();
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return the store for the route, or null if the route is not cached
+     */
+    public RouteStore forRoute(String routeId) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        ResponseCacheProperties.RouteCache config = properties.getRoutes().get(routeId);
+        if (config == null) {
+            return null;
+        }
+        return stores.computeIfAbsent(routeId, id -> new RouteStore(id, config));
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.response-cache.cleanup-interval:PT30S}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        stores.values().forEach(store -> store.entries.values().removeIf(entry -> entry.isExpired(now)));
+    }
+
+    /**
+     * Strong validator: base64url of the SHA-256 of the exact body bytes.
+     */
+    public static String etagOf(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The gateway is a shared cache, so it honours the downstream's no-store, no-cache and private
+     * directives by not storing the response at all.
+     */
+    static boolean allowsStore(HttpHeaders headers) {
+        List<String> values = headers.get(HttpHeaders.CACHE_CONTROL);
+        if (values == null) {
+            return true;
+        }
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                String name = directive.split("=", 2)[0].trim().toLowerCase(Locale.ROOT);
+                if (name.equals("no-store") || name.equals("no-cache") || name.equals("private")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public record Key(String principal, String pathAndQuery) {
+    }
+
+    public class RouteStore {
+
+        private final ResponseCacheProperties.RouteCache config;
+        private final Map<Key, CachedResponse> entries = new ConcurrentHashMap<>();
+
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter notModified;
+        private final Counter downstreamBytesSaved;
+        private final Counter clientBytesSaved;
+        private final Counter oversized;
+
+        RouteStore(String routeId, ResponseCacheProperties.RouteCache config) {
+            this.config = config;
+            Tags tags = Tags.of("route", routeId);
+            this.hits = Counter.builder("gateway.response.cache.requests").tags(tags).tag("result", "hit")
+                    .register(meterRegistry);
+            this.misses = Counter.builder("gateway.response.cache.requests").tags(tags).tag("result", "miss")
+                    .register(meterRegistry);
+            this.notModified = Counter.builder("gateway.response.cache.not.modified").tags(tags)
+                    .register(meterRegistry);
+            this.downstreamBytesSaved = Counter.builder("gateway.response.cache.bytes.saved").tags(tags)
+                    .tag("side", "downstream").baseUnit("bytes").register(meterRegistry);
+            this.clientBytesSaved = Counter.builder("gateway.response.cache.bytes.saved").tags(tags)
+                    .tag("side", "client").baseUnit("bytes").register(meterRegistry);
+            this.oversized = Counter.builder("gateway.response.cache.oversized").tags(tags)
+                    .description("Responses passed through uncaptured because they exceed max-entry-bytes")
+                    .register(meterRegistry);
+            Gauge.builder("gateway.response.cache.size", entries, Map::size).tags(tags).register(meterRegistry);
+        }
+
+        public CachedResponse get(Key key) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null && cached.isExpired(System.nanoTime())) {
+                entries.remove(key, cached);
+                cached = null;
+            }
+            if (cached == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            downstreamBytesSaved.increment(cached.body().length);
+            return cached;
+        }
+
+        /**
+         * Builds an entry for the captured response and stores it if it is cacheable.
+         */
+        public CachedResponse put(Key key, HttpStatusCode status, HttpHeaders headers, byte[] body, String etag) {
+            long now = System.nanoTime();
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(headers);
+            copy.setETag(etag);
+            CachedResponse cached = new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(copy), body, etag,
+                    now, now + config.getTtl().toNanos());
+
+            if (status.value() == 200 && body.length <= config.getMaxEntryBytes()
+                    && !headers.containsKey(HttpHeaders.SET_COOKIE) && allowsStore(headers)) {
+                if (entries.size() >= config.getMaxEntries() && !entries.containsKey(key)) {
+                    evictOne();
+                }
+                entries.put(key, cached);
+            }
+            return cached;
+        }
+
+        public int maxEntryBytes() {
+            return config.getMaxEntryBytes();
+        }
+
+        public void recordOversized() {
+            oversized.increment();
+        }
+
+        public void recordNotModified(int bodyBytes) {
+            notModified.increment();
+            clientBytesSaved.increment(bodyBytes);
+        }
+
+        private void evictOne() {
+            Iterator<Key> it = entries.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+}
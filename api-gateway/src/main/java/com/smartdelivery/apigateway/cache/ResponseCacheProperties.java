@@ -0,0 +1,33 @@
+package com.smartdelivery.apigateway.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opt-in response caching for GET requests, keyed by route id. Only routes listed here are cached.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, RouteCache> routes = new HashMap<>();
+
+    @Data
+    public static class RouteCache {
+        private Duration ttl = Duration.ofSeconds(5);
+        private int maxEntries = 10_000;
+
+        /**
+         * Larger responses are passed through without being cached.
+         */
+        private int maxEntryBytes = 64 * 1024;
+    }
+}
@@ -0,0 +1,26 @@
+package com.smartdelivery.apigateway.coalescing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Route ids on which identical concurrent GET requests share one downstream call.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingProperties {
+
+    private boolean enabled = true;
+
+    private Set<String> routes = new HashSet<>();
+
+    /**
+     * Larger responses are not shared: waiting requests call the downstream themselves.
+     */
+    private int maxResponseBytes = 64 * 1024;
+}
@@ -0,0 +1,79 @@
+package com.smartdelivery.apigateway.coalescing;
+
+import com.smartdelivery.apigateway.cache.CachedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of in-flight downstream calls that later identical requests can attach to.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final CoalescingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, RouteCounters> counters = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.coalescing.inflight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    public int maxResponseBytes() {
+        return properties.getMaxResponseBytes();
+    }
+
+    public boolean isEnabled(String routeId) {
+        return properties.isEnabled() && properties.getRoutes().contains(routeId);
+    }
+
+    /**
+     * Registers the caller's sink as the leader for the key.
+     *
+     * @return the current leader's sink if there is one, or null if the caller became the leader
+     */
+    public Sinks.One<CachedResponse> join(Key key, Sinks.One<CachedResponse> sink) {
+        Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+        RouteCounters routeCounters = counters(key.routeId());
+        (leader == null ? routeCounters.forwarded() : routeCounters.coalesced()).increment();
+        return leader;
+    }
+
+    /**
+     * Stops new requests from attaching to the leader. Must be called before the result is emitted
+     * so that requests arriving afterwards fetch fresh data.
+     */
+    public void complete(Key key, Sinks.One<CachedResponse> sink) {
+        inFlight.remove(key, sink);
+    }
+
+    private RouteCounters counters(String routeId) {
+        RouteCounters routeCounters = counters.get(routeId);
+        if (routeCounters == null) {
+            routeCounters = counters.computeIfAbsent(routeId, id ->
+                    new RouteCounters(counter(id, "forwarded"), counter(id, "coalesced")));
+        }
+        return routeCounters;
+    }
+
+    private Counter counter(String routeId, String outcome) {
+        return Counter.builder("gateway.coalescing.requests")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record RouteCounters(Counter forwarded, Counter coalesced) {
+    }
+
+    public record Key(String routeId, String principal, String pathAndQuery) {
+    }
+}
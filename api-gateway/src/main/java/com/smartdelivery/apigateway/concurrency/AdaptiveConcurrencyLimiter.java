@@ -0,0 +1,88 @@
+package com.smartdelivery.apigateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Additive-increase / multiplicative-decrease limit on the number of in-flight requests to one
+ * downstream route. Every response that is fast and successful grows the limit by roughly one per
+ * round trip; a slow response, a 5xx from an overloaded service or an error shrinks it.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final ConcurrencyLimitProperties.Limit config;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong shed = new AtomicLong();
+    private volatile double limit;
+
+    AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties.Limit config) {
+        this.config = config;
+        this.latencyThresholdNanos = config.getLatencyThreshold().toNanos();
+        this.limit = clamp(config.getInitialLimit());
+    }
+
+    /**
+     * Takes a slot without waiting.
+     *
+     * @return false if the route is at its limit and the request should be shed
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                shed.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else {
+            increase();
+        }
+    }
+
+    public void onCongestion() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    /**
+     * Releases a slot without adjusting the limit, e.g. when the client went away.
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getShedCount() {
+        return shed.get();
+    }
+
+    private synchronized void increase() {
+        limit = clamp(limit + 1.0 / limit);
+    }
+
+    private synchronized void decrease() {
+        limit = clamp(limit * config.getBackoffRatio());
+    }
+
+    private double clamp(double value) {
+        return Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), value));
+    }
+}
@@ -0,0 +1,39 @@
+package com.smartdelivery.apigateway.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AIMD concurrency limits, keyed by route id. Routes without an entry are not limited.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, Limit> routes = new HashMap<>();
+
+    @Data
+    public static class Limit {
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+
+        /**
+         * Responses slower than this count as a congestion signal and shrink the limit.
+         */
+        private Duration latencyThreshold = Duration.ofMillis(500);
+
+        /**
+         * Multiplier applied to the limit on a congestion signal.
+         */
+        private double backoffRatio = 0.9;
+    }
+}
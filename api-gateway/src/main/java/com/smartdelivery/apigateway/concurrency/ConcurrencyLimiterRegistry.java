@@ -0,0 +1,49 @@
+package com.smartdelivery.apigateway.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiterRegistry(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return the limiter for the route, or null if the route is not limited
+     */
+    public AdaptiveConcurrencyLimiter forRoute(String routeId) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        ConcurrencyLimitProperties.Limit config = properties.getRoutes().get(routeId);
+        if (config == null) {
+            return null;
+        }
+        return limiters.computeIfAbsent(routeId, id -> register(id, new AdaptiveConcurrencyLimiter(config)));
+    }
+
+    private AdaptiveConcurrencyLimiter register(String routeId, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.concurrency.shed", limiter, AdaptiveConcurrencyLimiter::getShedCount)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,10 @@
+package com.smartdelivery.apigateway.config;
+
+import com.smartdelivery.apigateway.loadbalancer.PowerOfTwoChoicesLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PowerOfTwoChoicesLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
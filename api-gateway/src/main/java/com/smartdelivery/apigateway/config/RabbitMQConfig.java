@@ -0,0 +1,39 @@
+package com.smartdelivery.apigateway.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    @Bean
+    public FanoutExchange revocationExchange(@Value("${jwt.revocation.exchange}") String exchange) {
+        return new FanoutExchange(exchange);
+    }
+
+    /**
+     * Per-instance queue: every gateway replica needs every revocation.
+     */
+    @Bean
+    public Queue revocationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding revocationBinding(Queue revocationQueue, FanoutExchange revocationExchange) {
+        return BindingBuilder.bind(revocationQueue).to(revocationExchange);
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
@@ -0,0 +1,63 @@
+package com.smartdelivery.apigateway.controller;
+
+import com.smartdelivery.apigateway.batch.BatchExecutor;
+import com.smartdelivery.apigateway.batch.BatchProperties;
+import com.smartdelivery.apigateway.dto.BatchRequest;
+import com.smartdelivery.apigateway.dto.BatchResponse;
+import com.smartdelivery.apigateway.security.TokenAuthenticator;
+import com.smartdelivery.apigateway.security.VerifiedToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchExecutor batchExecutor;
+    private final BatchProperties properties;
+    private final TokenAuthenticator tokenAuthenticator;
+
+    @PostMapping
+    public Mono<ResponseEntity<BatchResponse>> batch(@RequestBody BatchRequest batchRequest,
+                                                     ServerWebExchange exchange) {
+        if (batchRequest.getRequests() == null || batchRequest.getRequests().isEmpty()
+                || batchRequest.getRequests().size() > properties.getMaxItems()) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+
+        // The token is verified once for the whole batch. Without one, only public
+        // sub-requests succeed and the rest are reported as 401 individually.
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        VerifiedToken principal = null;
+        if (authHeader != null) {
+            principal = tokenAuthenticator.authenticate(authHeader);
+            if (principal == null) {
+                return Mono.just(new ResponseEntity<>(HttpStatus.UNAUTHORIZED));
+            }
+        }
+
+        return batchExecutor.execute(exchange, batchRequest.getRequests(), principal, clientKey(exchange, principal))
+                .map(items -> new ResponseEntity<>(new BatchResponse(items), HttpStatus.OK));
+    }
+
+    private String clientKey(ServerWebExchange exchange, VerifiedToken principal) {
+        if (principal != null) {
+            return principal.username();
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : "unknown";
+    }
+}
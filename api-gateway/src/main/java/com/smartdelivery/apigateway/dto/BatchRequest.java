@@ -0,0 +1,29 @@
+package com.smartdelivery.apigateway.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchRequest {
+    private List<Item> requests = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+        /**
+         * Client-chosen identifier echoed back in the matching {@link BatchResponse.Item}.
+         */
+        private String id;
+        private String method;
+        private String path;
+        private JsonNode body;
+    }
+}
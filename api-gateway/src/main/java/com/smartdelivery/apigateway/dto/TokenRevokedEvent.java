@@ -0,0 +1,13 @@
+package com.smartdelivery.apigateway.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenRevokedEvent {
+    private String jti;
+    private long expiresAtMillis;
+}
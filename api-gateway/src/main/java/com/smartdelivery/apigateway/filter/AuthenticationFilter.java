@@ -1,12 +1,9 @@
 package com.smartdelivery.apigateway.filter;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
+import com.smartdelivery.apigateway.security.TokenAuthenticator;
+import com.smartdelivery.apigateway.security.VerifiedToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
@@ -17,8 +14,6 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Component
@@ -29,17 +24,15 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
     private static final List<String> SECURED_PATHS = List.of("/users", "/notifications", "/orders");
     private static final List<String> PUBLIC_PATHS = List.of("/auth");
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    /**
+     * Exchange attribute holding the username of a request whose token was verified by this filter.
+     */
+    public static final String AUTHENTICATED_USER_ATTR = AuthenticationFilter.class.getName() + ".user";
 
-    private SecretKey secretKey;
+    private final TokenAuthenticator tokenAuthenticator;
 
-    @PostConstruct
-    public void init() {
-        if (jwtSecret == null || jwtSecret.isBlank()) {
-            throw new IllegalStateException("JWT secret must be set in application.yml");
-        }
-        this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public AuthenticationFilter(TokenAuthenticator tokenAuthenticator) {
+        this.tokenAuthenticator = tokenAuthenticator;
     }
 
     @Override
@@ -47,11 +40,7 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         final String path = exchange.getRequest().getURI().getPath();
         log.debug("Incoming request: {}", path);
 
-        if (isPublicPath(path)) {
-            return chain.filter(exchange);
-        }
-
-        if (!isSecuredPath(path)) {
+        if (!requiresAuthentication(path)) {
             return chain.filter(exchange);
         }
 
@@ -61,25 +50,15 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
             return unauthorized(exchange);
         }
 
-        final String token = authHeader.substring(7);
-        Claims claims;
-        try {
-            claims = getClaimsFromToken(token);
-        } catch (Exception e) {
-            log.error("JWT validation failed: {}", e.getMessage());
-            return unauthorized(exchange);
-        }
-
-        final String username = claims.getSubject();
-        final List<String> roles = claims.get("roles", List.class);
-
-        if (username == null || roles == null || roles.isEmpty()) {
-            log.warn("JWT does not contain necessary claims: username or roles");
+        final VerifiedToken verified = tokenAuthenticator.authenticate(authHeader);
+        if (verified == null) {
             return unauthorized(exchange);
         }
 
-        final String role = roles.get(0);
+        final String username = verified.username();
+        final String role = verified.role();
         log.debug("Authenticated user: {} with role: {}", username, role);
+        exchange.getAttributes().put(AUTHENTICATED_USER_ATTR, username);
 
         ServerHttpRequest mutatedRequest = exchange.getRequest().mutate()
                 .header("X-Username", username)
@@ -89,20 +68,19 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         return chain.filter(exchange.mutate().request(mutatedRequest).build());
     }
 
-    private boolean isPublicPath(String path) {
-        return PUBLIC_PATHS.stream().anyMatch(path::startsWith);
+    /**
+     * Whether requests to the given path must carry a valid bearer token.
+     */
+    public static boolean requiresAuthentication(String path) {
+        return !isPublicPath(path) && isSecuredPath(path);
     }
 
-    private boolean isSecuredPath(String path) {
-        return SECURED_PATHS.stream().anyMatch(path::startsWith);
+    private static boolean isPublicPath(String path) {
+        return PUBLIC_PATHS.stream().anyMatch(path::startsWith);
     }
 
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static boolean isSecuredPath(String path) {
+        return SECURED_PATHS.stream().anyMatch(path::startsWith);
     }
 
     private Mono<Void> unauthorized(ServerWebExchange exchange) {
@@ -112,6 +90,8 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
 
     @Override
     public int getOrder() {
-        return -1;
+        // Ahead of NettyWriteResponseFilter (-1) so that filters which buffer the
+        // response body can still rely on the authenticated user.
+        return -100;
     }
 }
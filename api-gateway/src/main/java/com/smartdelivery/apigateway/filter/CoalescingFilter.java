@@ -0,0 +1,96 @@
+package com.smartdelivery.apigateway.filter;
+
+import com.smartdelivery.apigateway.cache.BodyCapturingResponseDecorator;
+import com.smartdelivery.apigateway.cache.CachedResponse;
+import com.smartdelivery.apigateway.coalescing.RequestCoalescer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Optional;
+
+/**
+ * Collapses concurrent identical GET requests (same route, path, query and user) into a single
+ * downstream call. The first request is forwarded; the others wait for its buffered response and
+ * replay it. If the leader fails, is cancelled or its response exceeds {@code max-response-bytes},
+ * waiting requests are forwarded on their own.
+ */
+@Component
+public class CoalescingFilter implements GlobalFilter, Ordered {
+
+    private final RequestCoalescer coalescer;
+
+    public CoalescingFilter(RequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        if (route == null || request.getMethod() != HttpMethod.GET || ExchangeKeys.isStreaming(request)
+                || !coalescer.isEnabled(route.getId())) {
+            return chain.filter(exchange);
+        }
+
+        RequestCoalescer.Key key = new RequestCoalescer.Key(route.getId(), ExchangeKeys.principal(exchange), ExchangeKeys.pathAndQuery(request));
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> leader = coalescer.join(key, sink);
+
+        if (leader != null) {
+            return leader.asMono()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> shared.isPresent()
+                            ? replay(exchange.getResponse(), shared.get())
+                            : chain.filter(exchange));
+        }
+
+        BodyCapturingResponseDecorator decorator = new BodyCapturingResponseDecorator(exchange.getResponse(),
+                coalescer.maxResponseBytes(),
+                () -> {
+                    // Too large to hold for the followers; they call the downstream themselves.
+                    coalescer.complete(key, sink);
+                    sink.tryEmitEmpty();
+                },
+                (response, body) -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    headers.putAll(response.getHeaders());
+                    long now = System.nanoTime();
+                    CachedResponse shared = new CachedResponse(
+                            response.getStatusCode() != null ? response.getStatusCode() : HttpStatus.OK,
+                            HttpHeaders.readOnlyHttpHeaders(headers), body, null, now, now);
+                    coalescer.complete(key, sink);
+                    sink.tryEmitValue(shared);
+                    return BodyCapturingResponseDecorator.write(response, body);
+                });
+        return chain.filter(exchange.mutate().response(decorator).build())
+                .doFinally(signal -> {
+                    coalescer.complete(key, sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    private Mono<Void> replay(ServerHttpResponse response, CachedResponse shared) {
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        return BodyCapturingResponseDecorator.write(response, shared.body());
+    }
+
+    @Override
+    public int getOrder() {
+        // After ResponseCacheFilter, so only cache misses are coalesced.
+        return -70;
+    }
+}
@@ -0,0 +1,71 @@
+package com.smartdelivery.apigateway.filter;
+
+import com.smartdelivery.apigateway.concurrency.AdaptiveConcurrencyLimiter;
+import com.smartdelivery.apigateway.concurrency.ConcurrencyLimiterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+@Component
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimiterRegistry limiterRegistry) {
+        this.limiterRegistry = limiterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        AdaptiveConcurrencyLimiter limiter = route != null ? limiterRegistry.forRoute(route.getId()) : null;
+        if (limiter == null) {
+            return chain.filter(exchange);
+        }
+
+        if (!limiter.tryAcquire()) {
+            log.debug("Shedding request to route {} at limit {}", route.getId(), limiter.getLimit());
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return exchange.getResponse().setComplete();
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> release(limiter, exchange, signal, System.nanoTime() - start));
+    }
+
+    private void release(AdaptiveConcurrencyLimiter limiter, ServerWebExchange exchange,
+                         SignalType signal, long latencyNanos) {
+        if (signal == SignalType.CANCEL) {
+            limiter.onIgnore();
+            return;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (signal == SignalType.ON_ERROR || isOverloaded(status)) {
+            limiter.onCongestion();
+        } else {
+            limiter.onSuccess(latencyNanos);
+        }
+    }
+
+    private boolean isOverloaded(HttpStatusCode status) {
+        return status != null && (status.value() == 502 || status.value() == 503 || status.value() == 504);
+    }
+
+    @Override
+    public int getOrder() {
+        return 1;
+    }
+}
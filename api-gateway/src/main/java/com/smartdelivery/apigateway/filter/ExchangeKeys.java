@@ -0,0 +1,34 @@
+package com.smartdelivery.apigateway.filter;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Parts of a request that identify "the same response" for caching and coalescing.
+ */
+final class ExchangeKeys {
+
+    private ExchangeKeys() {
+    }
+
+    static String principal(ServerWebExchange exchange) {
+        String username = exchange.getAttribute(AuthenticationFilter.AUTHENTICATED_USER_ATTR);
+        return username != null ? username : "";
+    }
+
+    static String pathAndQuery(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getURI().getRawPath();
+        return query != null ? path + "?" + query : path;
+    }
+
+    /**
+     * Streamed responses are never buffered, so they are neither cached nor shared.
+     */
+    static boolean isStreaming(ServerHttpRequest request) {
+        return request.getHeaders().getAccept().stream()
+                .anyMatch(type -> type.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                        || type.isCompatibleWith(MediaType.TEXT_EVENT_STREAM));
+    }
+}
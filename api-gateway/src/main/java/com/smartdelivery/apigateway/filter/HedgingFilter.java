@@ -0,0 +1,194 @@
+package com.smartdelivery.apigateway.filter;
+
+import com.smartdelivery.apigateway.cache.BodyCapturingResponseDecorator;
+import com.smartdelivery.apigateway.hedging.HedgePolicy;
+import com.smartdelivery.apigateway.hedging.HedgePolicyRegistry;
+import com.smartdelivery.apigateway.loadbalancer.InstanceStatsRegistry;
+import com.smartdelivery.apigateway.loadbalancer.PowerOfTwoChoicesLoadBalancer;
+import com.smartdelivery.apigateway.loadbalancer.TrackedResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hedges GET requests on routes configured under {@code gateway.hedging}. The request is sent to
+ * one instance; if it has not answered after the route's percentile-based delay, and the hedge
+ * budget allows it, a second attempt goes to a different instance. The first response wins and
+ * the other attempt is cancelled.
+ * <p>
+ * Both attempts are made by this filter, so for hedged requests the load balancer and Netty
+ * routing filters further down the chain are not invoked.
+ */
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingFilter.class);
+
+    private final HedgePolicyRegistry policyRegistry;
+    private final LoadBalancerClientFactory clientFactory;
+    private final InstanceStatsRegistry statsRegistry;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final WebClient.Builder webClientBuilder;
+    private final Map<String, WebClient> webClients = new ConcurrentHashMap<>();
+
+    public HedgingFilter(HedgePolicyRegistry policyRegistry,
+                         LoadBalancerClientFactory clientFactory,
+                         InstanceStatsRegistry statsRegistry,
+                         ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                         WebClient.Builder webClientBuilder,
+                         HttpClient httpClient) {
+        this.policyRegistry = policyRegistry;
+        this.clientFactory = clientFactory;
+        this.statsRegistry = statsRegistry;
+        this.headersFilters = headersFilters;
+        // Same connection pool, timeouts and proxy settings as routed requests.
+        this.webClientBuilder = webClientBuilder.clone().clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (route == null || url == null || !"lb".equals(url.getScheme())
+                || exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        HedgePolicy policy = policyRegistry.forRoute(route.getId());
+        ReactorServiceInstanceLoadBalancer loadBalancer = policy != null
+                ? clientFactory.getInstance(url.getHost(), ReactorServiceInstanceLoadBalancer.class)
+                : null;
+        if (loadBalancer == null) {
+            return chain.filter(exchange);
+        }
+
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(List::of), exchange);
+        headers.remove(HttpHeaders.HOST);
+        Request<RequestDataContext> lbRequest = new DefaultRequest<>(
+                new RequestDataContext(new RequestData(exchange.getRequest(), exchange.getAttributes())));
+
+        return loadBalancer.choose(lbRequest)
+                .flatMap(primary -> {
+                    if (!primary.hasServer()) {
+                        return Mono.empty();
+                    }
+                    policy.onPrimary();
+                    ServiceInstance first = primary.getServer();
+                    WebClient webClient = webClient(route.getId(), policy);
+                    Mono<Attempt> hedge = Mono.delay(policy.hedgeDelay())
+                            .then(Mono.defer(() -> chooseOther(loadBalancer, lbRequest, first)))
+                            .filter(second -> policy.tryHedge())
+                            .flatMap(second -> attempt(webClient, second, url, headers, policy, true));
+                    return Mono.firstWithValue(attempt(webClient, first, url, headers, policy, false), hedge);
+                })
+                .flatMap(winner -> {
+                    if (winner.hedge()) {
+                        policy.onHedgeWon();
+                    }
+                    exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, winner.uri());
+                    return write(exchange, winner.response());
+                })
+                .switchIfEmpty(Mono.defer(() -> complete(exchange.getResponse(), HttpStatus.SERVICE_UNAVAILABLE)))
+                .onErrorResume(e -> {
+                    log.warn("Hedged request to {} failed: {}", url.getHost(), e.getMessage());
+                    return complete(exchange.getResponse(), HttpStatus.BAD_GATEWAY);
+                });
+    }
+
+    private Mono<ServiceInstance> chooseOther(ReactorServiceInstanceLoadBalancer loadBalancer,
+                                              Request<RequestDataContext> lbRequest, ServiceInstance excluded) {
+        Mono<Response<ServiceInstance>> choice = loadBalancer instanceof PowerOfTwoChoicesLoadBalancer p2c
+                ? p2c.chooseExcluding(lbRequest, excluded)
+                : loadBalancer.choose(lbRequest);
+        return choice
+                .filter(Response::hasServer)
+                .map(Response::getServer)
+                .filter(instance -> !(instance.getHost().equals(excluded.getHost())
+                        && instance.getPort() == excluded.getPort()));
+    }
+
+    private WebClient webClient(String routeId, HedgePolicy policy) {
+        return webClients.computeIfAbsent(routeId, id -> webClientBuilder.clone()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(policy.maxResponseBytes()))
+                .build());
+    }
+
+    private Mono<Attempt> attempt(WebClient webClient, ServiceInstance instance, URI url, HttpHeaders headers,
+                                  HedgePolicy policy, boolean hedge) {
+        URI uri = LoadBalancerUriTools.reconstructURI(instance, url);
+        TrackedResponse tracked = new TrackedResponse(instance);
+        return Mono.defer(() -> {
+            statsRegistry.recordStart(tracked);
+            long start = System.nanoTime();
+            return webClient.get()
+                    .uri(uri)
+                    .headers(h -> h.addAll(headers))
+                    .exchangeToMono(response -> response.toEntity(byte[].class))
+                    .doOnSuccess(response -> {
+                        statsRegistry.recordFinish(tracked, response.getStatusCode().is5xxServerError());
+                        policy.recordLatency(System.nanoTime() - start);
+                    })
+                    .doOnError(e -> statsRegistry.recordFinish(tracked, true))
+                    .doOnCancel(() -> statsRegistry.recordCancel(tracked))
+                    .map(response -> new Attempt(uri, response, hedge));
+        });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ResponseEntity<byte[]> downstream) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = HttpHeadersFilter.filter(headersFilters.getIfAvailable(List::of),
+                downstream.getHeaders(), exchange, HttpHeadersFilter.Type.RESPONSE);
+        response.setStatusCode(downstream.getStatusCode());
+        response.getHeaders().putAll(headers);
+        byte[] body = downstream.getBody() != null ? downstream.getBody() : new byte[0];
+        return BodyCapturingResponseDecorator.write(response, body);
+    }
+
+    private Mono<Void> complete(ServerHttpResponse response, HttpStatus status) {
+        response.setStatusCode(status);
+        return response.setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        // Needs the lb:// URL resolved by RouteToRequestUrlFilter, and replaces the load balancer
+        // and routing filters for hedged requests.
+        return (RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER
+                + ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER) / 2;
+    }
+
+    private record Attempt(URI uri, ResponseEntity<byte[]> response, boolean hedge) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.smartdelivery.apigateway.filter;
+
+import com.smartdelivery.apigateway.ratelimit.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        Duration retryAfter = rateLimiter.tryAcquire(route.getId(), clientKey(exchange));
+        if (retryAfter.isZero()) {
+            return chain.filter(exchange);
+        }
+
+        log.debug("Rate limit exceeded on route {} for {}", route.getId(), clientKey(exchange));
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        return exchange.getResponse().setComplete();
+    }
+
+    /**
+     * Authenticated requests are limited per user, anonymous ones (e.g. /auth/login) per client address.
+     */
+    private String clientKey(ServerWebExchange exchange) {
+        String username = exchange.getAttribute(AuthenticationFilter.AUTHENTICATED_USER_ATTR);
+        if (username != null) {
+            return username;
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : "unknown";
+    }
+
+    @Override
+    public int getOrder() {
+        // Runs right after AuthenticationFilter so the authenticated user is known.
+        return -90;
+    }
+}
@@ -0,0 +1,72 @@
+package com.smartdelivery.apigateway.filter;
+
+import com.smartdelivery.apigateway.metrics.RouteLatencyMetrics;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+
+/**
+ * Times every routed request, including authentication, limiting and caching in the gateway
+ * itself. The instance tag is the downstream host and port the request was sent to, or
+ * {@code none} if it was answered by the gateway.
+ */
+@Component
+public class RequestMetricsFilter implements GlobalFilter, Ordered {
+
+    private final RouteLatencyMetrics metrics;
+
+    public RequestMetricsFilter(RouteLatencyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> metrics.record(route.getId(), outcome(exchange, signal), instance(exchange),
+                        System.nanoTime() - start));
+    }
+
+    private String outcome(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return "cancelled";
+        }
+        if (signal == SignalType.ON_ERROR) {
+            return "error";
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null ? RouteLatencyMetrics.statusClass(status.value()) : "2xx";
+    }
+
+    private String instance(ServerWebExchange exchange) {
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (url == null || "lb".equals(url.getScheme()) || url.getHost() == null) {
+            return "none";
+        }
+        if (url.getRawUserInfo() == null) {
+            // Already "host:port" (or just the host) and kept by the URI, so no string is built per request.
+            return url.getRawAuthority();
+        }
+        return url.getPort() > 0 ? url.getHost() + ":" + url.getPort() : url.getHost();
+    }
+
+    @Override
+    public int getOrder() {
+        // Outermost gateway filter, so the time spent in the gateway's own filters is included.
+        return -200;
+    }
+}
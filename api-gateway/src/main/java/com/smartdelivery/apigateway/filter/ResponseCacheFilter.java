@@ -0,0 +1,122 @@
+package com.smartdelivery.apigateway.filter;
+
+import com.smartdelivery.apigateway.cache.BodyCapturingResponseDecorator;
+import com.smartdelivery.apigateway.cache.CachedResponse;
+import com.smartdelivery.apigateway.cache.ResponseCache;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Serves GET requests on opted-in routes from {@link ResponseCache} and answers
+ * {@code If-None-Match} with 304. Every response on such a route that fits in
+ * {@code max-entry-bytes} carries a strong ETag, so clients can revalidate even after the entry
+ * has expired; larger responses stream through without one.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheFilter(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        if (route == null || request.getMethod() != HttpMethod.GET || ExchangeKeys.isStreaming(request)) {
+            return chain.filter(exchange);
+        }
+        ResponseCache.RouteStore store = responseCache.forRoute(route.getId());
+        if (store == null) {
+            return chain.filter(exchange);
+        }
+
+        ResponseCache.Key key = new ResponseCache.Key(ExchangeKeys.principal(exchange), ExchangeKeys.pathAndQuery(request));
+        List<String> ifNoneMatch = ifNoneMatch(request);
+
+        CachedResponse cached = store.get(key);
+        if (cached != null) {
+            if (matches(ifNoneMatch, cached.etag())) {
+                store.recordNotModified(cached.body().length);
+                return notModified(exchange.getResponse(), cached.etag());
+            }
+            return replay(exchange.getResponse(), cached);
+        }
+
+        BodyCapturingResponseDecorator decorator = new BodyCapturingResponseDecorator(exchange.getResponse(),
+                store.maxEntryBytes(), store::recordOversized,
+                (response, body) -> {
+                    HttpStatusCode status = response.getStatusCode();
+                    if (status == null || status.value() != HttpStatus.OK.value()) {
+                        return BodyCapturingResponseDecorator.write(response, body);
+                    }
+                    String etag = ResponseCache.etagOf(body);
+                    store.put(key, status, response.getHeaders(), body, etag);
+                    if (matches(ifNoneMatch, etag)) {
+                        store.recordNotModified(body.length);
+                        return notModified(response, etag);
+                    }
+                    response.getHeaders().setETag(etag);
+                    return BodyCapturingResponseDecorator.write(response, body);
+                });
+        return chain.filter(exchange.mutate().response(decorator).build());
+    }
+
+    private Mono<Void> replay(ServerHttpResponse response, CachedResponse cached) {
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(System.nanoTime())));
+        return BodyCapturingResponseDecorator.write(response, cached.body());
+    }
+
+    private Mono<Void> notModified(ServerHttpResponse response, String etag) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        response.getHeaders().setETag(etag);
+        return response.setComplete();
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so a W/ prefix on the client's tag is ignored.
+     */
+    private boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            String tag = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> ifNoneMatch(ServerHttpRequest request) {
+        try {
+            return request.getHeaders().getIfNoneMatch();
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // Must wrap the response before NettyWriteResponseFilter (-1) writes the downstream body.
+        return -80;
+    }
+}
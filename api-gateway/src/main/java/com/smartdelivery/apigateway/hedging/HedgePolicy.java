@@ -0,0 +1,113 @@
+package com.smartdelivery.apigateway.hedging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hedging state of one route: the delay before a second attempt, derived from a latency
+ * percentile, and a budget that caps hedges at a fraction of primary requests.
+ */
+public class HedgePolicy {
+
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long BUDGET_UNIT = 1000;
+
+    private final HedgingProperties.RouteHedging config;
+    private final Timer latency;
+    private final Counter primaries;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+
+    private final AtomicLong budget;
+    private final long budgetDeposit;
+    private final long budgetMax;
+
+    private volatile long delayNanos;
+    private volatile long nextRefreshNanos;
+
+    HedgePolicy(String routeId, HedgingProperties.RouteHedging config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.latency = Timer.builder("gateway.hedging.latency")
+                .tag("route", routeId)
+                .publishPercentiles(config.getPercentile())
+                .register(meterRegistry);
+        this.primaries = Counter.builder("gateway.hedging.attempts").tag("route", routeId).tag("type", "primary")
+                .register(meterRegistry);
+        this.hedges = Counter.builder("gateway.hedging.attempts").tag("route", routeId).tag("type", "hedge")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("gateway.hedging.wins").tag("route", routeId)
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("gateway.hedging.budget.exhausted").tag("route", routeId)
+                .register(meterRegistry);
+
+        this.budgetDeposit = (long) (config.getBudgetRatio() * BUDGET_UNIT);
+        this.budgetMax = config.getBudgetBurst() * BUDGET_UNIT;
+        this.budget = new AtomicLong(budgetMax);
+        this.delayNanos = config.getInitialDelay().toNanos();
+        this.nextRefreshNanos = System.nanoTime() + REFRESH_INTERVAL_NANOS;
+    }
+
+    public void onPrimary() {
+        primaries.increment();
+        budget.accumulateAndGet(budgetDeposit, (current, deposit) -> Math.min(budgetMax, current + deposit));
+    }
+
+    /**
+     * Spends one hedge from the budget. Call only once an instance for the hedge has been chosen.
+     *
+     * @return false if hedging this request would exceed the budget
+     */
+    public boolean tryHedge() {
+        while (true) {
+            long current = budget.get();
+            if (current < BUDGET_UNIT) {
+                budgetExhausted.increment();
+                return false;
+            }
+            if (budget.compareAndSet(current, current - BUDGET_UNIT)) {
+                hedges.increment();
+                return true;
+            }
+        }
+    }
+
+    public int maxResponseBytes() {
+        return (int) Math.min(Integer.MAX_VALUE, config.getMaxResponseSize().toBytes());
+    }
+
+    public void onHedgeWon() {
+        hedgeWins.increment();
+    }
+
+    public void recordLatency(long nanos) {
+        latency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Duration hedgeDelay() {
+        long now = System.nanoTime();
+        if (now - nextRefreshNanos >= 0) {
+            nextRefreshNanos = now + REFRESH_INTERVAL_NANOS;
+            refreshDelay();
+        }
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private void refreshDelay() {
+        HistogramSnapshot snapshot = latency.takeSnapshot();
+        if (snapshot.count() < config.getMinSamples()) {
+            return;
+        }
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            long nanos = (long) value.value(TimeUnit.NANOSECONDS);
+            delayNanos = Math.max(config.getMinDelay().toNanos(), Math.min(config.getMaxDelay().toNanos(), nanos));
+        }
+    }
+}
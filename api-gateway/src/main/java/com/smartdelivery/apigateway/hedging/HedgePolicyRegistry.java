@@ -0,0 +1,34 @@
+package com.smartdelivery.apigateway.hedging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class HedgePolicyRegistry {
+
+    private final HedgingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, HedgePolicy> policies = new ConcurrentHashMap<>();
+
+    public HedgePolicyRegistry(HedgingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return the policy for the route, or null if the route is not hedged
+     */
+    public HedgePolicy forRoute(String routeId) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        HedgingProperties.RouteHedging config = properties.getRoutes().get(routeId);
+        if (config == null) {
+            return null;
+        }
+        return policies.computeIfAbsent(routeId, id -> new HedgePolicy(id, config, meterRegistry));
+    }
+}
@@ -0,0 +1,55 @@
+package com.smartdelivery.apigateway.hedging;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hedged GET requests, keyed by route id. Listing a route here declares its GET endpoints
+ * idempotent and safe to send twice.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.hedging")
+public class HedgingProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, RouteHedging> routes = new HashMap<>();
+
+    @Data
+    public static class RouteHedging {
+        /**
+         * Latency percentile of recent responses after which a second attempt is sent.
+         */
+        private double percentile = 0.95;
+
+        /**
+         * Delay used until enough latency samples have been recorded.
+         */
+        private Duration initialDelay = Duration.ofMillis(100);
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private long minSamples = 100;
+
+        /**
+         * Maximum hedged attempts as a fraction of primary requests.
+         */
+        private double budgetRatio = 0.05;
+
+        /**
+         * Hedges that can be spent at once after a quiet period.
+         */
+        private int budgetBurst = 10;
+
+        /**
+         * Largest response body an attempt may buffer; larger responses fail with 502.
+         */
+        private DataSize maxResponseSize = DataSize.ofMegabytes(10);
+    }
+}
@@ -0,0 +1,73 @@
+package com.smartdelivery.apigateway.listener;
+
+import com.smartdelivery.apigateway.dto.TokenRevokedEvent;
+import com.smartdelivery.apigateway.security.RevokedTokenSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Feeds {@link RevokedTokenSet} from the revocations auth-service broadcasts. On startup the set
+ * is seeded from auth-service's list of still-active revocations, since the broadcasts made before
+ * this instance subscribed are not redelivered.
+ */
+@Component
+public class TokenRevocationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationListener.class);
+
+    private final RevokedTokenSet revokedTokens;
+    private final WebClient webClient;
+    private final String snapshotUri;
+    private final String snapshotToken;
+
+    public TokenRevocationListener(RevokedTokenSet revokedTokens,
+                                   WebClient.Builder webClientBuilder,
+                                   LoadBalancedExchangeFilterFunction loadBalancerFunction,
+                                   @Value("${jwt.revocation.snapshot-uri}") String snapshotUri,
+                                   @Value("${jwt.revocation.snapshot-token}") String snapshotToken) {
+        if (!StringUtils.hasText(snapshotToken)) {
+            throw new IllegalStateException("jwt.revocation.snapshot-token must be set");
+        }
+        this.revokedTokens = revokedTokens;
+        this.webClient = webClientBuilder.filter(loadBalancerFunction).build();
+        this.snapshotUri = snapshotUri;
+        this.snapshotToken = snapshotToken;
+    }
+
+    @RabbitListener(queues = "#{revocationQueue.name}")
+    public void handle(TokenRevokedEvent event) {
+        add(event);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        webClient.get()
+                .uri(snapshotUri)
+                .header("X-Service-Token", snapshotToken)
+                .retrieve()
+                .bodyToFlux(TokenRevokedEvent.class)
+                .doOnNext(this::add)
+                .count()
+                .retryWhen(Retry.backoff(10, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(
+                        count -> log.info("Loaded {} active token revocations", count),
+                        error -> log.error("Could not load token revocations: {}", error.getMessage()));
+    }
+
+    private void add(TokenRevokedEvent event) {
+        if (event.getJti() != null) {
+            revokedTokens.add(RevokedTokenSet.hash(event.getJti()), event.getExpiresAtMillis());
+        }
+    }
+}
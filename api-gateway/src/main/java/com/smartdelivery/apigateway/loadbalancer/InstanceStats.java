@@ -0,0 +1,91 @@
+package com.smartdelivery.apigateway.loadbalancer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live load of a single service instance as seen by this gateway.
+ */
+public class InstanceStats {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong ewmaLatencyBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile boolean everEjected;
+    private volatile long ejectedUntilNanos;
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    void touch(long nowNanos) {
+        lastUsedNanos = nowNanos;
+    }
+
+    /**
+     * True if no request is in flight and the load balancer has not listed the instance for
+     * {@code idleNanos}.
+     */
+    boolean isIdle(long nowNanos, long idleNanos) {
+        return inFlight.get() == 0 && nowNanos - lastUsedNanos >= idleNanos;
+    }
+
+    void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    void onComplete(long latencyNanos, double alpha) {
+        inFlight.decrementAndGet();
+        consecutiveFailures.set(0);
+        while (true) {
+            long bits = ewmaLatencyBits.get();
+            double current = Double.longBitsToDouble(bits);
+            double next = current == 0.0 ? latencyNanos : current + alpha * (latencyNanos - current);
+            if (ewmaLatencyBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    void onCancel() {
+        inFlight.decrementAndGet();
+    }
+
+    void onFailure(int failureThreshold, long ejectNanos) {
+        inFlight.decrementAndGet();
+        failures.incrementAndGet();
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            consecutiveFailures.set(0);
+            ejectedUntilNanos = System.nanoTime() + ejectNanos;
+            everEjected = true;
+        }
+    }
+
+    /**
+     * Lower is better. Instances without a latency sample yet only compete on in-flight count.
+     */
+    double score() {
+        double latency = Double.longBitsToDouble(ewmaLatencyBits.get());
+        return (inFlight.get() + 1) * Math.max(latency, 1.0);
+    }
+
+    /**
+     * {@code nowNanos} may predate this object, e.g. when the load balancer reads the clock once
+     * before listing instances it has not seen yet, so a new instance must not compare its creation
+     * time against it.
+     */
+    public boolean isEjected(long nowNanos) {
+        return everEjected && nowNanos - ejectedUntilNanos < 0;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public double getEwmaLatencyMillis() {
+        return Double.longBitsToDouble(ewmaLatencyBits.get()) / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+}
@@ -0,0 +1,163 @@
+package com.smartdelivery.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks in-flight requests, latency and failures per service instance. Registered as a
+ * {@link LoadBalancerLifecycle} so every load-balanced call through the gateway is accounted for.
+ */
+@Component
+public class InstanceStatsRegistry implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private final LoadBalancerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<InstanceKey, Entry> stats = new ConcurrentHashMap<>();
+
+    public InstanceStatsRegistry(LoadBalancerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Also marks the instance as in use; the load balancer calls this for every instance it lists.
+     */
+    public InstanceStats statsFor(ServiceInstance instance) {
+        InstanceStats instanceStats = stats.computeIfAbsent(InstanceKey.of(instance), this::register).stats();
+        instanceStats.touch(System.nanoTime());
+        return instanceStats;
+    }
+
+    /**
+     * Drops instances that are no longer listed by their service's instance supplier, together with
+     * their meters.
+     */
+    @Scheduled(fixedDelayString = "${gateway.load-balancer.cleanup-interval:PT1M}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        for (Iterator<Entry> it = stats.values().iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (entry.stats().isIdle(now, idleNanos)) {
+                it.remove();
+                entry.meters().forEach(meterRegistry::remove);
+            }
+        }
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse instanceof TrackedResponse tracked) {
+            recordStart(tracked);
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context) {
+        if (context.getLoadBalancerResponse() instanceof TrackedResponse tracked) {
+            recordFinish(tracked, isFailure(context));
+        }
+    }
+
+    /**
+     * Marks the start of a call to the instance chosen in {@code tracked}, for callers that talk to
+     * the instance directly rather than through the load balancer filters.
+     */
+    public void recordStart(TrackedResponse tracked) {
+        if (tracked.hasServer()) {
+            InstanceStats instanceStats = statsFor(tracked.getServer());
+            tracked.setStats(instanceStats);
+            tracked.setStartNanos(System.nanoTime());
+            instanceStats.onStart();
+        }
+    }
+
+    public void recordFinish(TrackedResponse tracked, boolean failed) {
+        if (!tracked.hasServer() || !tracked.finish()) {
+            return;
+        }
+        InstanceStats instanceStats = tracked.getStats();
+        if (failed) {
+            instanceStats.onFailure(properties.getFailureThreshold(), properties.getEjectDuration().toNanos());
+        } else {
+            instanceStats.onComplete(System.nanoTime() - tracked.getStartNanos(), properties.getEwmaAlpha());
+        }
+    }
+
+    /**
+     * The load balancer lifecycle is not notified when the caller cancels, so the gateway
+     * releases such requests explicitly.
+     */
+    public void recordCancel(Response<ServiceInstance> lbResponse) {
+        if (lbResponse instanceof TrackedResponse tracked && tracked.hasServer() && tracked.finish()) {
+            tracked.getStats().onCancel();
+        }
+    }
+
+    private boolean isFailure(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context) {
+        if (context.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        ResponseData response = context.getClientResponse();
+        HttpStatusCode status = response != null ? response.getHttpStatus() : null;
+        return status != null && status.is5xxServerError();
+    }
+
+    private Entry register(InstanceKey key) {
+        InstanceStats instanceStats = new InstanceStats();
+        Tags tags = Tags.of("service", key.serviceId(), "instance", key.host() + ":" + key.port());
+        List<Meter> meters = List.of(
+                Gauge.builder("gateway.lb.instance.inflight", instanceStats, InstanceStats::getInFlight)
+                        .tags(tags)
+                        .register(meterRegistry),
+                Gauge.builder("gateway.lb.instance.latency.ewma", instanceStats, InstanceStats::getEwmaLatencyMillis)
+                        .tags(tags)
+                        .baseUnit("milliseconds")
+                        .register(meterRegistry),
+                Gauge.builder("gateway.lb.instance.ejected", instanceStats, s -> s.isEjected(System.nanoTime()) ? 1 : 0)
+                        .tags(tags)
+                        .register(meterRegistry),
+                FunctionCounter.builder("gateway.lb.instance.failures", instanceStats, InstanceStats::getFailureCount)
+                        .tags(tags)
+                        .register(meterRegistry));
+        return new Entry(instanceStats, meters);
+    }
+
+    private record Entry(InstanceStats stats, List<Meter> meters) {
+    }
+
+    private record InstanceKey(String serviceId, String host, int port) {
+        static InstanceKey of(ServiceInstance instance) {
+            return new InstanceKey(instance.getServiceId(), instance.getHost(), instance.getPort());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.smartdelivery.apigateway.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancerProperties {
+
+    /**
+     * Weight of the newest sample in the per-instance latency EWMA.
+     */
+    private double ewmaAlpha = 0.2;
+
+    /**
+     * Consecutive failed responses after which an instance is ejected.
+     */
+    private int failureThreshold = 3;
+
+    /**
+     * How long an ejected instance receives no traffic, unless every instance is ejected.
+     */
+    private Duration ejectDuration = Duration.ofSeconds(10);
+
+    /**
+     * Stats and meters of an instance that has not been listed or called for this long are dropped,
+     * so instances that left the registry do not accumulate.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+}
@@ -0,0 +1,48 @@
+package com.smartdelivery.apigateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Load balancer response that remembers when the request to the chosen instance started,
+ * so the latency can be attributed to that instance on completion.
+ */
+public class TrackedResponse extends DefaultResponse {
+
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private volatile long startNanos;
+    private volatile InstanceStats stats;
+
+    public TrackedResponse(ServiceInstance serviceInstance) {
+        super(serviceInstance);
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    void setStartNanos(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Stats the request was counted against at start, so it is released on the same object even if
+     * the registry evicted and recreated the entry in between.
+     */
+    InstanceStats getStats() {
+        return stats;
+    }
+
+    void setStats(InstanceStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * @return true only for the first caller, so a request is released exactly once
+     */
+    boolean finish() {
+        return startNanos != 0 && finished.compareAndSet(false, true);
+    }
+}
@@ -0,0 +1,69 @@
+package com.smartdelivery.apigateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of routed requests, one timer per route, status class and downstream
+ * instance. Percentiles and histogram buckets are configured through
+ * {@code management.metrics.distribution.*.gateway.requests.latency}; Micrometer backs them with
+ * HdrHistogram, so recording does not allocate once a timer exists.
+ */
+@Component
+public class RouteLatencyMetrics {
+
+    private static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private final MeterRegistry meterRegistry;
+    // route -> outcome -> instance, so a lookup needs no composite key object
+    private final Map<String, Map<String, Map<String, Timer>>> timers = new ConcurrentHashMap<>();
+
+    public RouteLatencyMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String routeId, String outcome, String instance, long latencyNanos) {
+        timer(routeId, outcome, instance).record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the status class tag ({@code 2xx}, {@code 5xx}, ...) for an HTTP status code
+     */
+    public static String statusClass(int status) {
+        int index = status / 100 - 1;
+        return index >= 0 && index < STATUS_CLASSES.length ? STATUS_CLASSES[index] : "unknown";
+    }
+
+    /**
+     * Plain gets first; the capturing lambdas are only created when a level is missing.
+     */
+    private Timer timer(String routeId, String outcome, String instance) {
+        Map<String, Map<String, Timer>> byOutcome = timers.get(routeId);
+        if (byOutcome == null) {
+            byOutcome = timers.computeIfAbsent(routeId, id -> new ConcurrentHashMap<>());
+        }
+        Map<String, Timer> byInstance = byOutcome.get(outcome);
+        if (byInstance == null) {
+            byInstance = byOutcome.computeIfAbsent(outcome, o -> new ConcurrentHashMap<>());
+        }
+        Timer timer = byInstance.get(instance);
+        if (timer == null) {
+            timer = byInstance.computeIfAbsent(instance, i -> register(routeId, outcome, i));
+        }
+        return timer;
+    }
+
+    private Timer register(String routeId, String outcome, String instance) {
+        return Timer.builder("gateway.requests.latency")
+                .description("Time from the gateway receiving a request to the response being written")
+                .tag("route", routeId)
+                .tag("status", outcome)
+                .tag("instance", instance)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,41 @@
+package com.smartdelivery.apigateway.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-route token-bucket limits, keyed by the route id from the gateway route definitions.
+ * Routes without an entry are not limited.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Buckets that have been full for longer than this are dropped.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Map<String, Limit> routes = new HashMap<>();
+
+    @Data
+    public static class Limit {
+        /**
+         * Maximum burst a single client can send at once.
+         */
+        private int capacity;
+
+        /**
+         * Sustained requests per second per client.
+         */
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,95 @@
+package com.smartdelivery.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one {@link TokenBucket} per route and client. Never blocks: a request either gets a
+ * token immediately or is told how long to wait.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<BucketKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, RouteCounters> counters = new ConcurrentHashMap<>();
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.ratelimit.buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @return {@link Duration#ZERO} if the request is admitted, otherwise the time until it would be
+     */
+    public Duration tryAcquire(String routeId, String client) {
+        RateLimitProperties.Limit limit = properties.getRoutes().get(routeId);
+        if (!properties.isEnabled() || limit == null) {
+            return Duration.ZERO;
+        }
+        if (limit.getCapacity() <= 0 || limit.getRefillPerSecond() <= 0) {
+            return reject(routeId, Duration.ofSeconds(1));
+        }
+
+        long emissionInterval = (long) (1_000_000_000L / limit.getRefillPerSecond());
+        long burstTolerance = emissionInterval * (limit.getCapacity() - 1L);
+        long now = System.nanoTime();
+
+        TokenBucket bucket = buckets.computeIfAbsent(new BucketKey(routeId, client), key -> new TokenBucket(now));
+        long waitNanos = bucket.tryAcquire(now, emissionInterval, burstTolerance);
+        if (waitNanos > 0) {
+            return reject(routeId, Duration.ofNanos(waitNanos));
+        }
+        counters(routeId).allowed().increment();
+        return Duration.ZERO;
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.cleanup-interval:PT1M}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        log.debug("Evicted {} idle rate limit buckets", before - buckets.size());
+    }
+
+    private Duration reject(String routeId, Duration retryAfter) {
+        counters(routeId).rejected().increment();
+        return retryAfter;
+    }
+
+    private RouteCounters counters(String routeId) {
+        RouteCounters routeCounters = counters.get(routeId);
+        if (routeCounters == null) {
+            routeCounters = counters.computeIfAbsent(routeId, id ->
+                    new RouteCounters(counter(id, "allowed"), counter(id, "rejected")));
+        }
+        return routeCounters;
+    }
+
+    private Counter counter(String routeId, String outcome) {
+        return Counter.builder("gateway.ratelimit.requests")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record RouteCounters(Counter allowed, Counter rejected) {
+    }
+
+    private record BucketKey(String routeId, String client) {
+    }
+}
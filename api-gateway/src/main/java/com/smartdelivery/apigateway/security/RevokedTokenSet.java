@@ -0,0 +1,156 @@
+package com.smartdelivery.apigateway.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked token ids, kept as 64-bit hashes with their expiry in an open-addressing table of
+ * primitive longs (16 bytes per slot). Lookups are lock-free; writes come only from the revocation
+ * listener and are serialized. Expired entries are dropped by periodically rebuilding the table.
+ */
+@Component
+public class RevokedTokenSet {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+
+    public RevokedTokenSet(MeterRegistry meterRegistry) {
+        Gauge.builder("gateway.token.revocations.size", this, set -> set.table.size)
+                .register(meterRegistry);
+    }
+
+    public boolean contains(long jtiHash) {
+        return contains(jtiHash, System.currentTimeMillis());
+    }
+
+    boolean contains(long jtiHash, long now) {
+        return table.contains(jtiHash, now);
+    }
+
+    public void add(long jtiHash, long expiresAtMillis) {
+        add(jtiHash, expiresAtMillis, System.currentTimeMillis());
+    }
+
+    synchronized void add(long jtiHash, long expiresAtMillis, long now) {
+        if (expiresAtMillis <= now) {
+            return;
+        }
+        Table current = table;
+        if ((current.size + 1) * 2 > current.capacity()) {
+            current = current.rebuild(now, current.size + 1);
+        }
+        current.put(jtiHash, expiresAtMillis);
+        table = current;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup-interval:PT30S}")
+    public void evictExpired() {
+        evictExpired(System.currentTimeMillis());
+    }
+
+    synchronized void evictExpired(long now) {
+        table = table.rebuild(now, 0);
+    }
+
+    int size() {
+        return table.size;
+    }
+
+    int capacity() {
+        return table.capacity();
+    }
+
+    /**
+     * 64-bit FNV-1a finished with the MurmurHash3 mixer. Never returns 0, which marks an empty slot.
+     */
+    public static long hash(String jti) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : jti.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+
+    private static final class Table {
+
+        private final AtomicLongArray keys;
+        private final AtomicLongArray expiries;
+        private final int mask;
+        private volatile int size;
+
+        Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.expiries = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        boolean contains(long key, long now) {
+            for (int i = (int) key & mask; ; i = (i + 1) & mask) {
+                long k = keys.get(i);
+                if (k == 0) {
+                    return false;
+                }
+                if (k == key) {
+                    return expiries.get(i) > now;
+                }
+            }
+        }
+
+        void put(long key, long expiresAtMillis) {
+            for (int i = (int) key & mask; ; i = (i + 1) & mask) {
+                long k = keys.get(i);
+                if (k == key) {
+                    expiries.set(i, Math.max(expiries.get(i), expiresAtMillis));
+                    return;
+                }
+                if (k == 0) {
+                    // Expiry first, so a reader that sees the key also sees its expiry.
+                    expiries.set(i, expiresAtMillis);
+                    keys.set(i, key);
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Copies the live entries into a table sized for them plus {@code extra} more at half load.
+         */
+        Table rebuild(long now, int extra) {
+            int live = 0;
+            for (int i = 0; i <= mask; i++) {
+                if (keys.get(i) != 0 && expiries.get(i) > now) {
+                    live++;
+                }
+            }
+            int capacity = INITIAL_CAPACITY;
+            while (capacity < (live + extra) * 2) {
+                capacity <<= 1;
+            }
+            Table next = new Table(capacity);
+            for (int i = 0; i <= mask; i++) {
+                long key = keys.get(i);
+                if (key != 0 && expiries.get(i) > now) {
+                    next.put(key, expiries.get(i));
+                }
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.smartdelivery.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies bearer tokens presented to the gateway, going through {@link VerifiedTokenCache}
+ * so that a token is only parsed and signature-checked once per lifetime.
+ */
+@Component
+public class TokenAuthenticator {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenAuthenticator.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    private final VerifiedTokenCache tokenCache;
+    private final RevokedTokenSet revokedTokens;
+
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    private JwtParser jwtParser;
+
+    public TokenAuthenticator(VerifiedTokenCache tokenCache, RevokedTokenSet revokedTokens,
+                              MeterRegistry meterRegistry) {
+        this.tokenCache = tokenCache;
+        this.revokedTokens = revokedTokens;
+        this.cachedTimer = verificationTimer(meterRegistry, "cached");
+        this.verifiedTimer = verificationTimer(meterRegistry, "verified");
+        this.rejectedTimer = verificationTimer(meterRegistry, "rejected");
+    }
+
+    @PostConstruct
+    public void init() {
+        if (jwtSecret == null || jwtSecret.isBlank()) {
+            throw new IllegalStateException("JWT secret must be set in application.yml");
+        }
+        SecretKey secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
+    }
+
+    /**
+     * @return the verified token, or null if the header is missing, malformed or the token is invalid
+     */
+    public VerifiedToken authenticate(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+
+        final long start = System.nanoTime();
+        final String token = authorizationHeader.substring(BEARER_PREFIX.length());
+        final TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken verified = tokenCache.get(digest);
+        if (verified != null) {
+            return isRevoked(verified)
+                    ? record(rejectedTimer, start, null)
+                    : record(cachedTimer, start, verified);
+        }
+
+        Claims claims;
+        try {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+        } catch (Exception e) {
+            log.error("JWT validation failed: {}", e.getMessage());
+            return record(rejectedTimer, start, null);
+        }
+
+        final String username = claims.getSubject();
+        final List<String> roles = claims.get("roles", List.class);
+
+        if (username == null || roles == null || roles.isEmpty()) {
+            log.warn("JWT does not contain necessary claims: username or roles");
+            return record(rejectedTimer, start, null);
+        }
+
+        final Date expiration = claims.getExpiration();
+        final long jtiHash = claims.getId() != null ? RevokedTokenSet.hash(claims.getId()) : 0L;
+        verified = new VerifiedToken(username, roles.get(0), expiration != null ? expiration.getTime() : 0L, jtiHash);
+        if (expiration != null) {
+            tokenCache.put(digest, verified);
+        }
+        if (isRevoked(verified)) {
+            return record(rejectedTimer, start, null);
+        }
+        return record(verifiedTimer, start, verified);
+    }
+
+    /**
+     * Checked on every request, cached or not, so a revocation takes effect as soon as it arrives.
+     */
+    private boolean isRevoked(VerifiedToken token) {
+        if (token.jtiHash() != 0 && revokedTokens.contains(token.jtiHash())) {
+            log.warn("Rejected revoked token of user {}", token.username());
+            return true;
+        }
+        return false;
+    }
+
+    private static VerifiedToken record(Timer timer, long startNanos, VerifiedToken result) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("gateway.auth.verification")
+                .description("Time spent checking a bearer token, including the verified token cache lookup")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,12 @@
+package com.smartdelivery.apigateway.security;
+
+/**
+ * Claims of a JWT whose signature has already been verified by the gateway. {@code jtiHash} is the
+ * {@link RevokedTokenSet#hash(String) hash} of the token id, or 0 if the token has none.
+ */
+public record VerifiedToken(String username, String role, long expiresAtMillis, long jtiHash) {
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
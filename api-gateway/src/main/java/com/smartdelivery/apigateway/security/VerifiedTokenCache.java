@@ -0,0 +1,100 @@
+package com.smartdelivery.apigateway.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of already verified tokens. Clients reuse the same token for its
+ * whole lifetime, so a hit lets the gateway skip signature verification and claims
+ * parsing. Entries never outlive the token's {@code exp}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private final Map<TokenDigest, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:100000}") int maxSize, MeterRegistry meterRegistry) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("JWT cache max size must be positive");
+        }
+        this.maxSize = maxSize;
+
+        FunctionCounter.builder("gateway.token.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.token.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("gateway.token.cache.evictions", evictions, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("gateway.token.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    public VerifiedToken get(TokenDigest key) {
+        VerifiedToken token = entries.get(key);
+        if (token == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (token.isExpired(System.currentTimeMillis())) {
+            if (entries.remove(key, token)) {
+                evictions.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return token;
+    }
+
+    public void put(TokenDigest key, VerifiedToken token) {
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evictOne();
+        }
+        entries.put(key, token);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.cache.cleanup-interval:PT30S}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Iterator<VerifiedToken> it = entries.values().iterator(); it.hasNext(); ) {
+            if (it.next().isExpired(now)) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            evictions.addAndGet(removed);
+            log.debug("Evicted {} expired tokens from cache", removed);
+        }
+    }
+
+    private void evictOne() {
+        Iterator<TokenDigest> it = entries.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+}
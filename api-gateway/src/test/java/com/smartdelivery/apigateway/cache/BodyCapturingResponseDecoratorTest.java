@@ -0,0 +1,75 @@
+package com.smartdelivery.apigateway.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BodyCapturingResponseDecoratorTest {
+
+    private final MockServerHttpResponse response = new MockServerHttpResponse();
+    private final AtomicInteger overflows = new AtomicInteger();
+    private final AtomicReference<byte[]> captured = new AtomicReference<>();
+
+    @Test
+    void capturesBodyWithinLimit() {
+        decorator(10).writeWith(chunks("abc", "def")).block();
+
+        assertArrayEquals(bytes("abcdef"), captured.get());
+        assertEquals(0, overflows.get());
+        assertEquals("abcdef", response.getBodyAsString().block());
+    }
+
+    @Test
+    void capturesEmptyBody() {
+        decorator(10).writeWith(Flux.empty()).block();
+
+        assertArrayEquals(new byte[0], captured.get());
+        assertEquals(0, overflows.get());
+    }
+
+    @Test
+    void streamsBodyThroughOnceLimitIsPassed() {
+        decorator(4).writeWith(chunks("abc", "def", "ghi")).block();
+
+        assertNull(captured.get());
+        assertEquals(1, overflows.get());
+        assertEquals("abcdefghi", response.getBodyAsString().block());
+    }
+
+    @Test
+    void skipsCaptureWhenContentLengthIsTooLarge() {
+        response.getHeaders().setContentLength(100);
+
+        decorator(10).writeWith(chunks("abc")).block();
+
+        assertNull(captured.get());
+        assertEquals(1, overflows.get());
+        assertEquals("abc", response.getBodyAsString().block());
+    }
+
+    private BodyCapturingResponseDecorator decorator(int maxBytes) {
+        return new BodyCapturingResponseDecorator(response, maxBytes, overflows::incrementAndGet,
+                (delegate, body) -> {
+                    captured.set(body);
+                    return BodyCapturingResponseDecorator.write(delegate, body);
+                });
+    }
+
+    private static Flux<DataBuffer> chunks(String... parts) {
+        return Flux.fromArray(parts).map(part -> DefaultDataBufferFactory.sharedInstance.wrap(bytes(part)));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,94 @@
+package com.smartdelivery.apigateway.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(200).toNanos();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(limit());
+
+    @Test
+    void shedsRequestsAboveTheLimit() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(), "slot " + i);
+        }
+
+        assertFalse(limiter.tryAcquire());
+        assertEquals(10, limiter.getInFlight());
+        assertEquals(1, limiter.getShedCount());
+
+        limiter.onIgnore();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void growsByAboutOnePerRoundTripOfFastResponses() {
+        // Ten fast responses at limit 10 add just under one.
+        completeFast(10);
+        assertEquals(10, limiter.getLimit());
+
+        completeFast(2);
+        assertEquals(11, limiter.getLimit());
+    }
+
+    @Test
+    void neverGrowsBeyondMaxLimit() {
+        completeFast(1000);
+
+        assertEquals(12, limiter.getLimit());
+    }
+
+    @Test
+    void slowResponseShrinksTheLimitMultiplicatively() {
+        assertTrue(limiter.tryAcquire());
+        limiter.onSuccess(SLOW);
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void congestionShrinksTheLimitDownToMinLimit() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onCongestion();
+        }
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void ignoredResponsesDoNotAdjustTheLimit() {
+        assertTrue(limiter.tryAcquire());
+        limiter.onIgnore();
+
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private void completeFast(int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onSuccess(FAST);
+        }
+    }
+
+    private static ConcurrencyLimitProperties.Limit limit() {
+        ConcurrencyLimitProperties.Limit limit = new ConcurrencyLimitProperties.Limit();
+        limit.setInitialLimit(10);
+        limit.setMinLimit(2);
+        limit.setMaxLimit(12);
+        limit.setLatencyThreshold(Duration.ofMillis(100));
+        limit.setBackoffRatio(0.5);
+        return limit;
+    }
+}
@@ -0,0 +1,104 @@
+package com.smartdelivery.apigateway.hedging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgePolicyTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HedgePolicy policy = new HedgePolicy("orders", config(), meterRegistry);
+
+    @Test
+    void startsWithAFullBurst() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(policy.tryHedge(), "hedge " + i);
+        }
+
+        assertFalse(policy.tryHedge());
+        assertEquals(3.0, counter("gateway.hedging.attempts", "hedge"));
+        assertEquals(1.0, meterRegistry.get("gateway.hedging.budget.exhausted").counter().count());
+    }
+
+    @Test
+    void earnsOneHedgePerTenPrimaries() {
+        exhaust();
+
+        primaries(9);
+        assertFalse(policy.tryHedge());
+
+        primaries(1);
+        assertTrue(policy.tryHedge());
+        assertFalse(policy.tryHedge());
+        assertEquals(10.0, counter("gateway.hedging.attempts", "primary"));
+    }
+
+    @Test
+    void rejectedHedgesDoNotSpendTheBudget() {
+        exhaust();
+        primaries(5);
+        for (int i = 0; i < 10; i++) {
+            assertFalse(policy.tryHedge());
+        }
+
+        primaries(5);
+        assertTrue(policy.tryHedge());
+    }
+
+    @Test
+    void budgetIsCappedAtTheBurst() {
+        primaries(1000);
+
+        int hedges = 0;
+        while (policy.tryHedge()) {
+            hedges++;
+        }
+        assertEquals(3, hedges);
+    }
+
+    @Test
+    void usesTheInitialDelayUntilEnoughSamples() {
+        policy.recordLatency(Duration.ofSeconds(5).toNanos());
+
+        assertEquals(Duration.ofMillis(100), policy.hedgeDelay());
+    }
+
+    @Test
+    void capsMaxResponseBytesAtIntRange() {
+        HedgingProperties.RouteHedging huge = config();
+        huge.setMaxResponseSize(DataSize.ofGigabytes(8));
+
+        assertEquals(64 * 1024, policy.maxResponseBytes());
+        assertEquals(Integer.MAX_VALUE, new HedgePolicy("huge", huge, meterRegistry).maxResponseBytes());
+    }
+
+    private void exhaust() {
+        while (policy.tryHedge()) {
+            // drain
+        }
+    }
+
+    private void primaries(int count) {
+        for (int i = 0; i < count; i++) {
+            policy.onPrimary();
+        }
+    }
+
+    private double counter(String name, String type) {
+        return meterRegistry.get(name).tag("route", "orders").tag("type", type).counter().count();
+    }
+
+    private static HedgingProperties.RouteHedging config() {
+        HedgingProperties.RouteHedging config = new HedgingProperties.RouteHedging();
+        config.setBudgetRatio(0.1);
+        config.setBudgetBurst(3);
+        config.setMaxResponseSize(DataSize.ofKilobytes(64));
+        return config;
+    }
+}
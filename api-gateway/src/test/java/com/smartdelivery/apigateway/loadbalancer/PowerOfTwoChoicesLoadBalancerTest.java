@@ -0,0 +1,117 @@
+package com.smartdelivery.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PowerOfTwoChoicesLoadBalancerTest {
+
+    private static final String SERVICE = "order-service";
+
+    private final ServiceInstance a = instance("a", 8081);
+    private final ServiceInstance b = instance("b", 8082);
+    private final ServiceInstance c = instance("c", 8083);
+
+    private final LoadBalancerProperties properties = new LoadBalancerProperties();
+    private final InstanceStatsRegistry registry = new InstanceStatsRegistry(properties, new SimpleMeterRegistry());
+
+    @Test
+    void neverChoosesTheExcludedInstance() {
+        PowerOfTwoChoicesLoadBalancer loadBalancer = loadBalancer(a, b, c);
+
+        for (int i = 0; i < 200; i++) {
+            assertNotEquals("a", chooseExcluding(loadBalancer, a).getServer().getInstanceId());
+        }
+    }
+
+    @Test
+    void matchesTheExcludedInstanceByHostAndPort() {
+        PowerOfTwoChoicesLoadBalancer loadBalancer = loadBalancer(a, b);
+        ServiceInstance sameAsA = new DefaultServiceInstance("a-copy", SERVICE, "a", 8081, false);
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("b", chooseExcluding(loadBalancer, sameAsA).getServer().getInstanceId());
+        }
+    }
+
+    @Test
+    void returnsEmptyResponseWhenNoOtherInstanceExists() {
+        PowerOfTwoChoicesLoadBalancer loadBalancer = loadBalancer(a);
+
+        assertFalse(chooseExcluding(loadBalancer, a).hasServer());
+    }
+
+    @Test
+    void choosesTheLessLoadedOfTheRemainingInstances() {
+        PowerOfTwoChoicesLoadBalancer loadBalancer = loadBalancer(a, b, c);
+        for (int i = 0; i < 5; i++) {
+            registry.recordStart(new TrackedResponse(b));
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals("c", chooseExcluding(loadBalancer, a).getServer().getInstanceId());
+        }
+    }
+
+    @Test
+    void skipsEjectedInstancesUnlessNothingElseIsLeft() {
+        eject(b);
+
+        PowerOfTwoChoicesLoadBalancer threeInstances = loadBalancer(a, b, c);
+        for (int i = 0; i < 50; i++) {
+            assertEquals("c", chooseExcluding(threeInstances, a).getServer().getInstanceId());
+        }
+
+        Response<ServiceInstance> onlyEjectedLeft = chooseExcluding(loadBalancer(a, b), a);
+        assertTrue(onlyEjectedLeft.hasServer());
+        assertEquals("b", onlyEjectedLeft.getServer().getInstanceId());
+    }
+
+    private void eject(ServiceInstance instance) {
+        for (int i = 0; i < properties.getFailureThreshold(); i++) {
+            TrackedResponse tracked = new TrackedResponse(instance);
+            registry.recordStart(tracked);
+            registry.recordFinish(tracked, true);
+        }
+    }
+
+    private Response<ServiceInstance> chooseExcluding(PowerOfTwoChoicesLoadBalancer loadBalancer,
+                                                      ServiceInstance excluded) {
+        return loadBalancer.chooseExcluding(new DefaultRequest<>(), excluded).block();
+    }
+
+    private PowerOfTwoChoicesLoadBalancer loadBalancer(ServiceInstance... instances) {
+        ServiceInstanceListSupplier supplier = new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return SERVICE;
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(List.of(instances));
+            }
+        };
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("supplier", supplier));
+        return new PowerOfTwoChoicesLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+                SERVICE, registry);
+    }
+
+    private static ServiceInstance instance(String host, int port) {
+        return new DefaultServiceInstance(host, SERVICE, host, port, false);
+    }
+}
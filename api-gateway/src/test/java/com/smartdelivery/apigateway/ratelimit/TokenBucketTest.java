@@ -0,0 +1,110 @@
+package com.smartdelivery.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long NOW = 1_000_000_000_000L;
+    // 10 tokens per second, burst capacity 5.
+    private static final long EMISSION = 100_000_000L;
+    private static final long TOLERANCE = EMISSION * 4;
+
+    private final TokenBucket bucket = new TokenBucket(NOW);
+
+    @Test
+    void allowsFullBurstThenRejects() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(NOW, EMISSION, TOLERANCE), "token " + i);
+        }
+        assertEquals(EMISSION, bucket.tryAcquire(NOW, EMISSION, TOLERANCE));
+    }
+
+    @Test
+    void reportsWaitUntilNextToken() {
+        drain(NOW);
+
+        assertEquals(EMISSION - 30_000_000L, bucket.tryAcquire(NOW + 30_000_000L, EMISSION, TOLERANCE));
+        assertEquals(0, bucket.tryAcquire(NOW + EMISSION, EMISSION, TOLERANCE));
+        assertEquals(EMISSION, bucket.tryAcquire(NOW + EMISSION, EMISSION, TOLERANCE));
+    }
+
+    @Test
+    void rejectedAttemptsDoNotConsumeTokens() {
+        drain(NOW);
+        for (int i = 0; i < 10; i++) {
+            bucket.tryAcquire(NOW + i, EMISSION, TOLERANCE);
+        }
+
+        assertEquals(0, bucket.tryAcquire(NOW + EMISSION, EMISSION, TOLERANCE));
+    }
+
+    @Test
+    void refillsAtTheEmissionRateUpToCapacity() {
+        drain(NOW);
+        long later = NOW + 3 * EMISSION;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later, EMISSION, TOLERANCE), "token " + i);
+        }
+        assertTrue(bucket.tryAcquire(later, EMISSION, TOLERANCE) > 0);
+
+        // A long pause refills to capacity, never beyond it.
+        long muchLater = later + 1000 * EMISSION;
+        assertEquals(5, drain(muchLater));
+    }
+
+    @Test
+    void isIdleOnceFullForTheIdleTime() {
+        drain(NOW);
+        long full = NOW + 5 * EMISSION;
+
+        assertFalse(bucket.isIdle(full, EMISSION));
+        assertFalse(bucket.isIdle(full + EMISSION, EMISSION));
+        assertTrue(bucket.isIdle(full + EMISSION + 1, EMISSION));
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws InterruptedException {
+        int threads = 8;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(NOW, EMISSION, TOLERANCE) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(5, granted.get());
+    }
+
+    private int drain(long now) {
+        int taken = 0;
+        while (bucket.tryAcquire(now, EMISSION, TOLERANCE) == 0) {
+            taken++;
+        }
+        return taken;
+    }
+}
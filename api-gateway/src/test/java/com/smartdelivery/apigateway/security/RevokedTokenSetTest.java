@@ -0,0 +1,92 @@
+package com.smartdelivery.apigateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevokedTokenSetTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final RevokedTokenSet set = new RevokedTokenSet(new SimpleMeterRegistry());
+
+    @Test
+    void containsAddedTokenUntilItExpires() {
+        long jti = RevokedTokenSet.hash("token-1");
+        set.add(jti, NOW + 1000, NOW);
+
+        assertTrue(set.contains(jti, NOW));
+        assertTrue(set.contains(jti, NOW + 999));
+        assertFalse(set.contains(jti, NOW + 1000));
+        assertFalse(set.contains(RevokedTokenSet.hash("token-2"), NOW));
+    }
+
+    @Test
+    void ignoresTokensThatAlreadyExpired() {
+        set.add(RevokedTokenSet.hash("expired"), NOW, NOW);
+
+        assertFalse(set.contains(RevokedTokenSet.hash("expired"), NOW - 1));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    void keepsTheLaterExpiryWhenAddedTwice() {
+        long jti = RevokedTokenSet.hash("token");
+        set.add(jti, NOW + 5000, NOW);
+        set.add(jti, NOW + 1000, NOW);
+
+        assertTrue(set.contains(jti, NOW + 4000));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void keepsEveryEntryWhileGrowing() {
+        int count = 10_000;
+        for (int i = 0; i < count; i++) {
+            set.add(RevokedTokenSet.hash("token-" + i), NOW + 60_000 + i, NOW);
+        }
+
+        assertEquals(count, set.size());
+        assertTrue(set.capacity() >= count * 2);
+        for (int i = 0; i < count; i++) {
+            assertTrue(set.contains(RevokedTokenSet.hash("token-" + i), NOW), "token-" + i);
+        }
+    }
+
+    @Test
+    void growthDropsExpiredEntries() {
+        for (int i = 0; i < 500; i++) {
+            set.add(RevokedTokenSet.hash("short-" + i), NOW + 10, NOW);
+        }
+        // Past the expiry of the first batch, adding more forces a rebuild that leaves them out.
+        for (int i = 0; i < 600; i++) {
+            set.add(RevokedTokenSet.hash("long-" + i), NOW + 60_000, NOW + 20);
+        }
+
+        assertEquals(600, set.size());
+        assertFalse(set.contains(RevokedTokenSet.hash("short-0"), NOW + 20));
+        assertTrue(set.contains(RevokedTokenSet.hash("long-599"), NOW + 20));
+    }
+
+    @Test
+    void evictExpiredRemovesOnlyExpiredEntries() {
+        set.add(RevokedTokenSet.hash("short"), NOW + 10, NOW);
+        set.add(RevokedTokenSet.hash("long"), NOW + 60_000, NOW);
+
+        set.evictExpired(NOW + 10);
+
+        assertEquals(1, set.size());
+        assertTrue(set.contains(RevokedTokenSet.hash("long"), NOW + 10));
+        assertFalse(set.contains(RevokedTokenSet.hash("short"), NOW + 10));
+    }
+
+    @Test
+    void hashIsNeverZero() {
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(RevokedTokenSet.hash("jti-" + i) != 0);
+        }
+    }
+}
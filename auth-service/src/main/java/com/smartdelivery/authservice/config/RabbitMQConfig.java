@@ -0,0 +1,56 @@
+package com.smartdelivery.authservice.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    @Bean
+    public FanoutExchange revocationExchange(@Value("${jwt.revocation.exchange}") String exchange) {
+        return new FanoutExchange(exchange);
+    }
+
+    /**
+     * User changes, routed as {@code user.registered} and {@code user.updated}.
+     */
+    @Bean
+    public TopicExchange userExchange(@Value("${auth.user-events.exchange}") String exchange) {
+        return new TopicExchange(exchange);
+    }
+
+    /**
+     * Per-instance queue, so every auth-service replica sees revocations made by the others.
+     */
+    @Bean
+    public Queue revocationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding revocationBinding(Queue revocationQueue, FanoutExchange revocationExchange) {
+        return BindingBuilder.bind(revocationQueue).to(revocationExchange);
+    }
+
+    @Bean
+    public Jackson2JsonMessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+
+    @Bean
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        return rabbitTemplate;
+    }
+}
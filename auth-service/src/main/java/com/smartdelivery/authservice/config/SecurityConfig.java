@@ -1,34 +1,54 @@
 package com.smartdelivery.authservice.config;
 
+import com.smartdelivery.authservice.security.BoundedPasswordEncoder;
 import com.smartdelivery.authservice.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    public static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${jwt.revocation.snapshot-token}")
+    private String snapshotToken;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        if (!StringUtils.hasText(snapshotToken)) {
+            throw new IllegalStateException("jwt.revocation.snapshot-token must be set");
+        }
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/login", "/auth/register").permitAll()
+                        .requestMatchers("/auth/login", "/auth/register", "/auth/refresh", "/actuator/health").permitAll()
+                        // Only for gateway bootstrap. The gateway does not route it, and callers inside the network need the service token.
+                        .requestMatchers("/auth/revocations").access((authentication, context) ->
+                                new AuthorizationDecision(isServiceCall(context.getRequest())))
+                        .requestMatchers("/auth/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -36,9 +56,25 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private boolean isServiceCall(HttpServletRequest request) {
+        String token = request.getHeader(SERVICE_TOKEN_HEADER);
+        return token != null
+                && MessageDigest.isEqual(snapshotToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * BCrypt on a dedicated pool. Raising {@code security.password.bcrypt-strength} makes
+     * {@link BCryptPasswordEncoder#upgradeEncoding} true for older hashes, which are then re-hashed
+     * on the user's next successful login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${security.password.bcrypt-strength:10}") int strength,
+            @Value("${security.password.hashing.threads:0}") int threads,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, meterRegistry);
     }
 
     @Bean
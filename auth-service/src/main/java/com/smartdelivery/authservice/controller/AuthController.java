@@ -2,17 +2,25 @@ package com.smartdelivery.authservice.controller;
 
 import com.smartdelivery.authservice.dto.AuthenticationResponse;
 import com.smartdelivery.authservice.dto.LoginRequest;
+import com.smartdelivery.authservice.dto.RefreshRequest;
 import com.smartdelivery.authservice.dto.RegisterRequest;
+import com.smartdelivery.authservice.dto.TokenRevokedEvent;
+import com.smartdelivery.authservice.security.HashingCapacityExceededException;
+import com.smartdelivery.authservice.security.LoginThrottledException;
 import com.smartdelivery.authservice.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/auth")
 @Validated
@@ -26,16 +34,71 @@ public class AuthController {
         try {
             return ResponseEntity.ok(authService.register(request));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new AuthenticationResponse(null));
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new AuthenticationResponse(null, null));
+        } catch (HashingCapacityExceededException e) {
+            return hashingUnavailable();
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthenticationResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthenticationResponse> login(@Valid @RequestBody LoginRequest request,
+                                                        HttpServletRequest httpRequest) {
+        try {
+            return ResponseEntity.ok(authService.login(request, clientAddress(httpRequest)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new AuthenticationResponse(null, null));
+        } catch (LoginThrottledException e) {
+            long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                    .body(new AuthenticationResponse(null, null));
+        } catch (HashingCapacityExceededException e) {
+            return hashingUnavailable();
+        }
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refresh(@RequestBody RefreshRequest request) {
         try {
-            return ResponseEntity.ok(authService.login(request));
+            return ResponseEntity.ok(authService.refresh(request));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new AuthenticationResponse(null));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new AuthenticationResponse(null, null));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Revokes the access token the request was made with, at this service and at the gateway.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) {
+        authService.logout(authHeader);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Currently revoked token ids, for gateway instances that start after the revocations were broadcast.
+     * Requires the gateway's service token, see {@link com.smartdelivery.authservice.config.SecurityConfig}.
+     */
+    @GetMapping("/revocations")
+    public ResponseEntity<List<TokenRevokedEvent>> revocations() {
+        return ResponseEntity.ok(authService.activeRevocations());
+    }
+
+    /**
+     * Behind the gateway the caller's address is the last X-Forwarded-For entry, the one the
+     * gateway appended itself; earlier entries are supplied by the client and cannot be trusted.
+     */
+    private String clientAddress(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            return forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private ResponseEntity<AuthenticationResponse> hashingUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new AuthenticationResponse(null, null));
+    }
+}
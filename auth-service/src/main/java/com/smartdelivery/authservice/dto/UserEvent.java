@@ -0,0 +1,22 @@
+package com.smartdelivery.authservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserEvent {
+
+    public enum Type {
+        REGISTERED,
+        UPDATED
+    }
+
+    private Type type;
+    private Long id;
+    private String username;
+    private String role;
+    private long occurredAtMillis;
+}
@@ -12,8 +12,15 @@ import lombok.NoArgsConstructor;
 @Table(name = "users")
 public class User {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Sequence-backed so that inserts can be batched; each {@code nextval} reserves a block of
+     * {@link #ID_ALLOCATION_SIZE} ids starting at the returned value (pooled-lo).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = User.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(unique = true)
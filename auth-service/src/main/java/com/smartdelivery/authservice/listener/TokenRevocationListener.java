@@ -0,0 +1,19 @@
+package com.smartdelivery.authservice.listener;
+
+import com.smartdelivery.authservice.dto.TokenRevokedEvent;
+import com.smartdelivery.authservice.security.TokenRevocationList;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationListener {
+
+    private final TokenRevocationList revocationList;
+
+    @RabbitListener(queues = "#{revocationQueue.name}")
+    public void handle(TokenRevokedEvent event) {
+        revocationList.revoke(event.getJti(), event.getExpiresAtMillis());
+    }
+}
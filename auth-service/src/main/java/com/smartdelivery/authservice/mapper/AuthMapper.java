@@ -20,8 +20,8 @@ public interface AuthMapper {
     @Mapping(target = "role", expression = "java(\"ROLE_\" + request.getRole().toUpperCase(Locale.ROOT))")
     User registerRequestToUser(RegisterRequest request);
 
-    default AuthenticationResponse tokenToAuthenticationResponse(String token) {
-        return new AuthenticationResponse(token);
+    default AuthenticationResponse tokenToAuthenticationResponse(String token, String refreshToken) {
+        return new AuthenticationResponse(token, refreshToken);
     }
 
     default SimpleGrantedAuthority roleToAuthority(String role) {
@@ -1,10 +1,40 @@
 package com.smartdelivery.authservice.repository;
 
 import com.smartdelivery.authservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    boolean existsByUsername(String username);
+
+    /**
+     * Inserts the user unless the username is taken, relying on the unique constraint instead of
+     * a separate existence check.
+     *
+     * @return the new user's id, or empty if the username already existed
+     */
+    @Transactional
+    @Query(value = "INSERT INTO users (id, username, password, role) "
+            + "VALUES (nextval('users_seq'), :username, :password, :role) "
+            + "ON CONFLICT (username) DO NOTHING RETURNING id", nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("username") String username,
+                       @Param("password") String password,
+                       @Param("role") String role);
+
+    /**
+     * Must be consumed inside a transaction; rows are fetched in chunks rather than all at once.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.username from User u")
+    Stream<String> streamAllUsernames();
 }
@@ -0,0 +1,22 @@
+package com.smartdelivery.authservice.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collections;
+
+/**
+ * Immutable snapshot of a user row. {@link UserDetails} instances are built fresh from it because the
+ * authentication manager erases credentials on the instance it is handed.
+ */
+public record CachedPrincipal(String username, String password, String role, long expiresAtNanos) {
+
+    public boolean isExpired(long nowNanos) {
+        return nowNanos - expiresAtNanos >= 0;
+    }
+
+    public UserDetails toUserDetails() {
+        return new User(username, password, Collections.singletonList(new SimpleGrantedAuthority(role)));
+    }
+}
@@ -2,29 +2,46 @@ package com.smartdelivery.authservice.security;
 
 import com.smartdelivery.authservice.entity.User;
 import com.smartdelivery.authservice.repository.UserRepository;
+import com.smartdelivery.authservice.service.UserEventPublisher;
 import lombok.AllArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-
-import java.util.Collections;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @AllArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final UserEventPublisher userEventPublisher;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority(user.getRole()))
-        );
+        CachedPrincipal principal = principalCache.get(username);
+        if (principal == null) {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+            principal = principalCache.put(user.getUsername(), user.getPassword(), user.getRole());
+        }
+        return principal.toUserDetails();
+    }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash was made
+     * with a different work factor than the one currently configured.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        userEventPublisher.updated(user);
+        return principalCache.put(user.getUsername(), newPassword, user.getRole()).toUserDetails();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package com.smartdelivery.authservice.security;
+
+/**
+ * Thrown when the password hashing pool is saturated and its queue is full.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.smartdelivery.authservice.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -16,12 +17,13 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
     private final SecretKey secretKey;
+    private final JwtParser jwtParser;
     private final Duration jwtLifetime;
 
     public JwtUtil(@Value("${jwt.secret}") String secret, @Value("${jwt.lifetime}") Duration jwtLifetime) {
@@ -32,40 +34,26 @@ public class JwtUtil {
             throw new IllegalArgumentException("JWT lifetime must be positive");
         }
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
         this.jwtLifetime = jwtLifetime;
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
+    /**
+     * Verifies the token's signature and expiry once and returns its claims.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    @SuppressWarnings("unchecked")
+    public ParsedToken parse(String token) {
+        final Claims claims;
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            claims = jwtParser.parseClaimsJws(token).getBody();
         } catch (JwtException e) {
             throw new JwtException("Invalid JWT token: " + e.getMessage(), e);
         }
-    }
-
-    private Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (JwtException e) {
-            return true;
-        }
+        return new ParsedToken(claims.getId(), claims.getSubject(), (List<String>) claims.get("roles"), claims.getExpiration());
     }
 
     public String generateToken(UserDetails userDetails, List<String> roles) {
@@ -80,24 +68,11 @@ public class JwtUtil {
 
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(issuedDate)
                 .setExpiration(expiredDate)
                 .signWith(secretKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (JwtException e) {
-            return false;
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    public List<String> extractRoles(String token) {
-        return extractClaim(token, claims -> (List<String>) claims.get("roles"));
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package com.smartdelivery.authservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts failed logins per username and per client address over a sliding window. Once either
+ * count reaches its threshold, further attempts are refused before any password is checked, for a
+ * lockout that doubles each time the same key trips again. Keys that stay quiet are forgotten,
+ * which also resets their lockout level.
+ * <p>
+ * State lives in {@link ConcurrentHashMap}s, so updates for different keys do not contend;
+ * each key's window is guarded by its own monitor.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private final Map<String, FailureWindow> byUsername = new ConcurrentHashMap<>();
+    private final Map<String, FailureWindow> byAddress = new ConcurrentHashMap<>();
+
+    private final long windowMillis;
+    private final int usernameThreshold;
+    private final int addressThreshold;
+    private final long baseLockoutMillis;
+    private final long maxLockoutMillis;
+    private final long idleTimeoutMillis;
+
+    private final Counter usernameFailures;
+    private final Counter addressFailures;
+    private final Counter usernameLockouts;
+    private final Counter addressLockouts;
+    private final Counter throttled;
+
+    public LoginThrottle(@Value("${auth.login-throttle.window:5m}") Duration window,
+                         @Value("${auth.login-throttle.username-threshold:5}") int usernameThreshold,
+                         @Value("${auth.login-throttle.address-threshold:50}") int addressThreshold,
+                         @Value("${auth.login-throttle.base-lockout:30s}") Duration baseLockout,
+                         @Value("${auth.login-throttle.max-lockout:1h}") Duration maxLockout,
+                         @Value("${auth.login-throttle.idle-timeout:30m}") Duration idleTimeout,
+                         MeterRegistry meterRegistry) {
+        if (usernameThreshold <= 0 || addressThreshold <= 0 || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Login throttle window and thresholds must be positive");
+        }
+        this.windowMillis = window.toMillis();
+        this.usernameThreshold = usernameThreshold;
+        this.addressThreshold = addressThreshold;
+        this.baseLockoutMillis = baseLockout.toMillis();
+        this.maxLockoutMillis = maxLockout.toMillis();
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+
+        this.usernameFailures = keyedCounter(meterRegistry, "auth.login.failures", "username");
+        this.addressFailures = keyedCounter(meterRegistry, "auth.login.failures", "address");
+        this.usernameLockouts = keyedCounter(meterRegistry, "auth.login.lockouts", "username");
+        this.addressLockouts = keyedCounter(meterRegistry, "auth.login.lockouts", "address");
+        this.throttled = Counter.builder("auth.login.throttled").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.keys", this, throttle -> throttle.byUsername.size() + throttle.byAddress.size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@link Duration#ZERO} if the attempt may proceed, otherwise how long the caller is locked out
+     */
+    public Duration checkAllowed(String username, String address) {
+        return checkAllowed(username, address, System.currentTimeMillis());
+    }
+
+    Duration checkAllowed(String username, String address, long now) {
+        long wait = Math.max(remainingLockout(byUsername, username, now), remainingLockout(byAddress, address, now));
+        if (wait > 0) {
+            throttled.increment();
+            return Duration.ofMillis(wait);
+        }
+        return Duration.ZERO;
+    }
+
+    public void recordFailure(String username, String address) {
+        recordFailure(username, address, System.currentTimeMillis());
+    }
+
+    void recordFailure(String username, String address, long now) {
+        usernameFailures.increment();
+        if (window(byUsername, username).recordFailure(now, usernameThreshold)) {
+            usernameLockouts.increment();
+            log.warn("Locking out username {} after repeated login failures", username);
+        }
+        addressFailures.increment();
+        if (window(byAddress, address).recordFailure(now, addressThreshold)) {
+            addressLockouts.increment();
+            log.warn("Locking out address {} after repeated login failures", address);
+        }
+    }
+
+    /**
+     * Clears the username's failures. The address keeps its count, since a stuffing source will
+     * eventually hit a valid pair.
+     */
+    public void recordSuccess(String username) {
+        byUsername.remove(key(username));
+    }
+
+    @Scheduled(fixedDelayString = "${auth.login-throttle.cleanup-interval:PT1M}")
+    public void evictIdle() {
+        evictIdle(System.currentTimeMillis());
+    }
+
+    void evictIdle(long now) {
+        byUsername.values().removeIf(window -> window.isIdle(now));
+        byAddress.values().removeIf(window -> window.isIdle(now));
+    }
+
+    private long remainingLockout(Map<String, FailureWindow> windows, String key, long now) {
+        FailureWindow window = windows.get(key(key));
+        return window != null ? window.remainingLockout(now) : 0;
+    }
+
+    private FailureWindow window(Map<String, FailureWindow> windows, String key) {
+        return windows.computeIfAbsent(key(key), k -> new FailureWindow());
+    }
+
+    private static String key(String value) {
+        return value != null ? value : "";
+    }
+
+    private static Counter keyedCounter(MeterRegistry meterRegistry, String name, String key) {
+        return Counter.builder(name)
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sliding-window counter approximated from the current and previous fixed windows, weighted by
+     * how much of the previous window still overlaps the sliding one.
+     */
+    private final class FailureWindow {
+
+        private long windowStart;
+        private int current;
+        private int previous;
+        private int lockouts;
+        private long lockedUntil;
+        private long lastSeen;
+
+        synchronized boolean recordFailure(long now, int threshold) {
+            roll(now);
+            current++;
+            lastSeen = now;
+            double overlap = 1.0 - (double) (now - windowStart) / windowMillis;
+            if (current + previous * overlap < threshold) {
+                return false;
+            }
+            long lockout = Math.min(maxLockoutMillis, baseLockoutMillis << Math.min(lockouts, 30));
+            lockedUntil = now + lockout;
+            lockouts++;
+            current = 0;
+            previous = 0;
+            return true;
+        }
+
+        synchronized long remainingLockout(long now) {
+            return Math.max(0, lockedUntil - now);
+        }
+
+        synchronized boolean isIdle(long now) {
+            return now >= lockedUntil && now - lastSeen >= idleTimeoutMillis;
+        }
+
+        private void roll(long now) {
+            if (windowStart == 0) {
+                windowStart = now;
+                return;
+            }
+            long elapsedWindows = (now - windowStart) / windowMillis;
+            if (elapsedWindows == 0) {
+                return;
+            }
+            previous = elapsedWindows == 1 ? current : 0;
+            current = 0;
+            windowStart += elapsedWindows * windowMillis;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.smartdelivery.authservice.security;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a login attempt is refused because of too many recent failures for the same
+ * username or client address.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LoginThrottledException(Duration retryAfter) {
+        super("Too many failed login attempts");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
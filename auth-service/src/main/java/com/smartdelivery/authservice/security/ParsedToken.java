@@ -0,0 +1,23 @@
+package com.smartdelivery.authservice.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Claims of a token whose signature and expiry have been checked by {@link JwtUtil#parse(String)}.
+ */
+public record ParsedToken(String jti, String subject, List<String> roles, Date expiration) {
+
+    public ParsedToken {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return roles.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+}
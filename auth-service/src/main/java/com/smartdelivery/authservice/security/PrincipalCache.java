@@ -0,0 +1,114 @@
+package com.smartdelivery.authservice.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-based store of user principals shared by the authentication provider and token
+ * issuance. Entries are dropped on register and whenever a user's password or role changes; the
+ * TTL bounds how long a change made outside this service can go unnoticed.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PrincipalCache.class);
+
+    private final Map<String, CachedPrincipal> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PrincipalCache(@Value("${auth.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${auth.principal-cache.ttl:5m}") Duration ttl,
+                          MeterRegistry meterRegistry) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Principal cache max size must be positive");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Principal cache TTL must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+
+        FunctionCounter.builder("auth.principal.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.principal.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.principal.cache.evictions", evictions, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("auth.principal.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    public CachedPrincipal get(String username) {
+        CachedPrincipal principal = entries.get(username);
+        if (principal == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (principal.isExpired(System.nanoTime())) {
+            if (entries.remove(username, principal)) {
+                evictions.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return principal;
+    }
+
+    public CachedPrincipal put(String username, String password, String role) {
+        CachedPrincipal principal = new CachedPrincipal(username, password, role, System.nanoTime() + ttlNanos);
+        if (entries.size() >= maxSize && !entries.containsKey(username)) {
+            evictOne();
+        }
+        entries.put(username, principal);
+        return principal;
+    }
+
+    public void invalidate(String username) {
+        entries.remove(username);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.principal-cache.cleanup-interval:PT1M}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Iterator<CachedPrincipal> it = entries.values().iterator(); it.hasNext(); ) {
+            if (it.next().isExpired(now)) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            evictions.addAndGet(removed);
+            log.debug("Evicted {} expired principals from cache", removed);
+        }
+    }
+
+    private void evictOne() {
+        Iterator<String> it = entries.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.smartdelivery.authservice.security;
+
+import com.smartdelivery.authservice.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rejects tokens on the in-memory {@link TokenRevocationList}. Optionally also checks that the
+ * token's subject still exists; that check is disabled by default, so requests are authenticated
+ * without touching the database. When enabled, users in the {@link PrincipalCache} are taken as
+ * existing.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationCheck {
+
+    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
+
+    @Value("${jwt.revocation-check.enabled:false}")
+    private boolean enabled;
+
+    public boolean isRevoked(ParsedToken token) {
+        if (revocationList.isRevoked(token.jti())) {
+            return true;
+        }
+        return enabled
+                && principalCache.get(token.subject()) == null
+                && !userRepository.existsByUsername(token.subject());
+    }
+}
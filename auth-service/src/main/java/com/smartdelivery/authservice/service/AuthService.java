@@ -2,20 +2,32 @@ package com.smartdelivery.authservice.service;
 
 import com.smartdelivery.authservice.dto.AuthenticationResponse;
 import com.smartdelivery.authservice.dto.LoginRequest;
+import com.smartdelivery.authservice.dto.RefreshRequest;
 import com.smartdelivery.authservice.dto.RegisterRequest;
+import com.smartdelivery.authservice.dto.TokenRevokedEvent;
 import com.smartdelivery.authservice.entity.User;
 import com.smartdelivery.authservice.mapper.AuthMapper;
 import com.smartdelivery.authservice.repository.UserRepository;
+import com.smartdelivery.authservice.security.CustomUserDetailsService;
 import com.smartdelivery.authservice.security.JwtUtil;
+import com.smartdelivery.authservice.security.LoginThrottle;
+import com.smartdelivery.authservice.security.LoginThrottledException;
+import com.smartdelivery.authservice.security.PrincipalCache;
+import com.smartdelivery.authservice.security.TokenRevocationList;
 import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 
 @Service
 @AllArgsConstructor
@@ -26,37 +38,100 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final AuthMapper authMapper;
+    private final PrincipalCache principalCache;
+    private final CustomUserDetailsService userDetailsService;
+    private final RefreshTokenService refreshTokenService;
+    private final UsernameBloomFilter usernameFilter;
+    private final LoginThrottle loginThrottle;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenRevocationList tokenRevocationList;
+    private final UserEventPublisher userEventPublisher;
 
     public AuthenticationResponse register(RegisterRequest request) {
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            throw new IllegalArgumentException("Username already exists");
+        // Fail fast on names that are known to be taken before paying for the password hash.
+        // The insert below is what actually guarantees uniqueness.
+        if (usernameFilter.mightContain(request.getUsername())) {
+            boolean taken = userRepository.existsByUsername(request.getUsername());
+            usernameFilter.recordConfirmation(taken);
+            if (taken) {
+                throw new IllegalArgumentException("Username already exists");
+            }
         }
 
         User userEntity = authMapper.registerRequestToUser(request);
         userEntity.setPassword(passwordEncoder.encode(request.getPassword()));
-        userRepository.save(userEntity);
+        Long id = userRepository.insertIfAbsent(userEntity.getUsername(), userEntity.getPassword(), userEntity.getRole())
+                .orElseThrow(() -> new IllegalArgumentException("Username already exists"));
+        usernameFilter.add(userEntity.getUsername());
+        principalCache.invalidate(userEntity.getUsername());
+        userEventPublisher.registered(id, userEntity.getUsername(), userEntity.getRole());
 
         UserDetails userDetails = authMapper.mapToUserDetails(userEntity);
         String token = jwtUtil.generateToken(userDetails, Collections.singletonList(userEntity.getRole()));
-        return authMapper.tokenToAuthenticationResponse(token);
+        return authMapper.tokenToAuthenticationResponse(token, refreshTokenService.issue(userEntity.getUsername()));
     }
 
 
-    public AuthenticationResponse login(LoginRequest request) {
+    public AuthenticationResponse login(LoginRequest request, String clientAddress) {
+        // Refuse locked-out callers before paying for a password comparison.
+        Duration retryAfter = loginThrottle.checkAllowed(request.getUsername(), clientAddress);
+        if (!retryAfter.isZero()) {
+            throw new LoginThrottledException(retryAfter);
+        }
+
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
             );
         } catch (BadCredentialsException e) {
+            loginThrottle.recordFailure(request.getUsername(), clientAddress);
             throw new IllegalArgumentException("Invalid username or password");
         }
+        loginThrottle.recordSuccess(request.getUsername());
 
-        User userEntity = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        // The principal was loaded by the authentication provider, so no second lookup is needed.
+        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        String token = jwtUtil.generateToken(userDetails, roles(userDetails));
+        return authMapper.tokenToAuthenticationResponse(token, refreshTokenService.issue(userDetails.getUsername()));
+    }
 
-        UserDetails userDetails = authMapper.mapToUserDetails(userEntity);
-        String token = jwtUtil.generateToken(userDetails, Collections.singletonList(userEntity.getRole()));
-        return authMapper.tokenToAuthenticationResponse(token);
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token. The password hash
+     * is not involved; the user's current role comes from the principal cache.
+     */
+    public AuthenticationResponse refresh(RefreshRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+
+        UserDetails userDetails;
+        try {
+            userDetails = userDetailsService.loadUserByUsername(rotation.username());
+        } catch (UsernameNotFoundException e) {
+            throw new IllegalArgumentException("User no longer exists");
+        }
+
+        String token = jwtUtil.generateToken(userDetails, roles(userDetails));
+        return authMapper.tokenToAuthenticationResponse(token, rotation.refreshToken());
+    }
+
+    /**
+     * Revokes the bearer token in the given Authorization header. The filter chain has already
+     * verified it, so parsing cannot fail for well-formed requests.
+     */
+    public void logout(String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            tokenRevocationService.revoke(jwtUtil.parse(authHeader.substring(7)));
+        }
+    }
+
+    public List<TokenRevokedEvent> activeRevocations() {
+        return tokenRevocationList.snapshot();
+    }
+
+    private List<String> roles(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
     }
 
 }
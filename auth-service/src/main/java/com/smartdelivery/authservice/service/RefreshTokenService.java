@@ -0,0 +1,161 @@
+package com.smartdelivery.authservice.service;
+
+import com.smartdelivery.authservice.entity.RefreshToken;
+import com.smartdelivery.authservice.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Only a SHA-256 digest of each token is stored: the
+ * tokens are 256 random bits, so a slow password hash would add cost without adding security.
+ * <p>
+ * Presenting a token that was already rotated revokes its whole family at once, in a transaction of
+ * its own so the revocation survives the rejected refresh and is seen by every instance. A token is
+ * accepted only while no token of its family is revoked, which also catches a successor whose
+ * rotation committed after the revocation. Expired tokens are removed by {@link #deleteExpired()}.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate revocationTransaction;
+    private final Duration lifetime;
+
+    private final Counter rotated;
+    private final Counter rejected;
+    private final Counter reused;
+    private final Counter revokedFamilies;
+    private final Counter expiredDeleted;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${jwt.refresh.lifetime:14d}") Duration lifetime,
+                               MeterRegistry meterRegistry) {
+        if (lifetime.isNegative() || lifetime.isZero()) {
+            throw new IllegalArgumentException("Refresh token lifetime must be positive");
+        }
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.revocationTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.revocationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lifetime = lifetime;
+
+        this.rotated = refreshCounter(meterRegistry, "rotated");
+        this.rejected = refreshCounter(meterRegistry, "rejected");
+        this.reused = refreshCounter(meterRegistry, "reused");
+        this.revokedFamilies = Counter.builder("auth.refresh.families.revoked").register(meterRegistry);
+        this.expiredDeleted = Counter.builder("auth.refresh.tokens.expired").register(meterRegistry);
+    }
+
+    /**
+     * Starts a new token family for a fresh login.
+     *
+     * @return the raw refresh token to hand to the client
+     */
+    public String issue(String username) {
+        return issue(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Consumes a refresh token and issues its successor in the same family.
+     *
+     * @throws IllegalArgumentException if the token is unknown, expired, revoked or already used
+     */
+    @Transactional
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw reject("Missing refresh token");
+        }
+
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(digest(rawToken))
+                .orElseThrow(() -> reject("Unknown refresh token"));
+        if (stored.isRevoked() || stored.getExpiresAt().isBefore(Instant.now())
+                || refreshTokenRepository.existsByFamilyIdAndRevokedTrue(stored.getFamilyId())) {
+            throw reject("Refresh token expired or revoked");
+        }
+
+        if (refreshTokenRepository.markUsed(stored.getId()) == 0) {
+            log.warn("Refresh token reuse detected for user {}, revoking its family", stored.getUsername());
+            reused.increment();
+            // The surrounding transaction rolls back when the refresh is rejected.
+            revocationTransaction.executeWithoutResult(
+                    status -> refreshTokenRepository.revokeFamily(stored.getFamilyId()));
+            revokedFamilies.increment();
+            throw new IllegalArgumentException("Refresh token already used");
+        }
+
+        rotated.increment();
+        return new Rotation(stored.getUsername(), issue(stored.getUsername(), stored.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.cleanup-interval:PT30S}")
+    public void deleteExpired() {
+        Integer deleted = transactionTemplate.execute(status -> refreshTokenRepository.deleteExpired(Instant.now()));
+        if (deleted != null && deleted > 0) {
+            expiredDeleted.increment(deleted);
+            log.debug("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issue(String username, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(digest(rawToken));
+        token.setUsername(username);
+        token.setFamilyId(familyId);
+        token.setExpiresAt(Instant.now().plus(lifetime));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    private IllegalArgumentException reject(String message) {
+        rejected.increment();
+        return new IllegalArgumentException(message);
+    }
+
+    private static String digest(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Counter refreshCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.refresh.requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public record Rotation(String username, String refreshToken) {
+    }
+}
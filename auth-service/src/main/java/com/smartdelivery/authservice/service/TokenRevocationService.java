@@ -0,0 +1,48 @@
+package com.smartdelivery.authservice.service;
+
+import com.smartdelivery.authservice.dto.TokenRevokedEvent;
+import com.smartdelivery.authservice.security.ParsedToken;
+import com.smartdelivery.authservice.security.TokenRevocationList;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Revokes access tokens and broadcasts the revocation to every auth-service and gateway instance.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final TokenRevocationList revocationList;
+    private final RabbitTemplate rabbitTemplate;
+    private final FanoutExchange revocationExchange;
+    private final Counter revocations;
+
+    public TokenRevocationService(TokenRevocationList revocationList,
+                                  RabbitTemplate rabbitTemplate,
+                                  FanoutExchange revocationExchange,
+                                  MeterRegistry meterRegistry) {
+        this.revocationList = revocationList;
+        this.rabbitTemplate = rabbitTemplate;
+        this.revocationExchange = revocationExchange;
+        this.revocations = Counter.builder("auth.token.revocations").register(meterRegistry);
+    }
+
+    public void revoke(ParsedToken token) {
+        if (token.jti() == null || token.expiration() == null) {
+            return;
+        }
+        long expiresAt = token.expiration().getTime();
+        if (revocationList.revoke(token.jti(), expiresAt)) {
+            revocations.increment();
+            rabbitTemplate.convertAndSend(revocationExchange.getName(), "", new TokenRevokedEvent(token.jti(), expiresAt));
+            log.debug("Revoked token {} of user {}", token.jti(), token.subject());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartdelivery.authservice.service;
+
+import com.smartdelivery.authservice.dto.UserEvent;
+import com.smartdelivery.authservice.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+
+/**
+ * Announces changes to the users table so that read models in other services can follow it.
+ * Inside a transaction the event is sent only after commit, so consumers never see a user that
+ * was rolled back. A failed send is logged and counted; consumers fall back to the database.
+ */
+@Service
+public class UserEventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final TopicExchange userExchange;
+    private final Counter published;
+    private final Counter failed;
+
+    public UserEventPublisher(RabbitTemplate rabbitTemplate,
+                              TopicExchange userExchange,
+                              MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.userExchange = userExchange;
+        this.published = Counter.builder("auth.user.events").tag("outcome", "published").register(meterRegistry);
+        this.failed = Counter.builder("auth.user.events").tag("outcome", "failed").register(meterRegistry);
+    }
+
+    public void registered(Long id, String username, String role) {
+        publish(new UserEvent(UserEvent.Type.REGISTERED, id, username, role, System.currentTimeMillis()));
+    }
+
+    public void updated(User user) {
+        publish(new UserEvent(UserEvent.Type.UPDATED, user.getId(), user.getUsername(), user.getRole(),
+                System.currentTimeMillis()));
+    }
+
+    private void publish(UserEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(UserEvent event) {
+        String routingKey = "user." + event.getType().name().toLowerCase(Locale.ROOT);
+        try {
+            rabbitTemplate.convertAndSend(userExchange.getName(), routingKey, event);
+            published.increment();
+        } catch (AmqpException e) {
+            failed.increment();
+            log.warn("Could not publish {} for user {}: {}", routingKey, event.getUsername(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.smartdelivery.authservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartdelivery.authservice.dto.ImportResult;
+import com.smartdelivery.authservice.dto.RegisterRequest;
+import com.smartdelivery.authservice.entity.User;
+import com.smartdelivery.authservice.mapper.AuthMapper;
+import com.smartdelivery.authservice.security.BoundedPasswordEncoder;
+import com.smartdelivery.authservice.security.HashingCapacityExceededException;
+import com.smartdelivery.authservice.security.PrincipalCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Imports users from an NDJSON or CSV stream. Rows are read one at a time, hashed in parallel on the
+ * shared password hashing pool and written in JDBC batches with ids reserved from {@code users_seq}.
+ * Invalid rows and taken usernames are reported per line and do not stop the import.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO users (id, username, password, role) VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (username) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final AuthMapper authMapper;
+    private final ObjectMapper objectMapper;
+    private final UsernameBloomFilter usernameFilter;
+    private final PrincipalCache principalCache;
+    private final UserEventPublisher userEventPublisher;
+
+    private final int batchSize;
+    private final int hashingParallelism;
+    private final int maxReportedErrors;
+
+    private final Counter importedRows;
+    private final Counter failedRows;
+
+    public UserImportService(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             BoundedPasswordEncoder passwordEncoder,
+                             AuthMapper authMapper,
+                             ObjectMapper objectMapper,
+                             UsernameBloomFilter usernameFilter,
+                             PrincipalCache principalCache,
+                             UserEventPublisher userEventPublisher,
+                             @Value("${auth.user-import.batch-size:50}") int batchSize,
+                             @Value("${auth.user-import.hashing-parallelism:0}") int hashingParallelism,
+                             @Value("${auth.user-import.max-reported-errors:1000}") int maxReportedErrors,
+                             MeterRegistry meterRegistry) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("User import batch size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.authMapper = authMapper;
+        this.objectMapper = objectMapper;
+        this.usernameFilter = usernameFilter;
+        this.principalCache = principalCache;
+        this.userEventPublisher = userEventPublisher;
+        this.batchSize = batchSize;
+        // Leave half of the hashing pool to interactive logins by default.
+        this.hashingParallelism = hashingParallelism > 0
+                ? hashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.maxReportedErrors = maxReportedErrors;
+
+        this.importedRows = Counter.builder("auth.user.import.rows").tag("outcome", "imported").register(meterRegistry);
+        this.failedRows = Counter.builder("auth.user.import.rows").tag("outcome", "failed").register(meterRegistry);
+    }
+
+    public ImportResult importUsers(InputStream input, boolean csv) throws IOException {
+        ImportResult result = new ImportResult();
+        List<Row> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (csv && lineNumber == 1 && isCsvHeader(line))) {
+                    continue;
+                }
+                result.setTotal(result.getTotal() + 1);
+
+                Row row = parse(line, lineNumber, csv, result);
+                if (row == null) {
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    writeBatch(batch, result);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, result);
+        }
+
+        log.info("Imported {} of {} users, {} failed", result.getImported(), result.getTotal(), result.getFailed());
+        return result;
+    }
+
+    private Row parse(String line, long lineNumber, boolean csv, ImportResult result) {
+        RegisterRequest request;
+        try {
+            request = csv ? parseCsv(line) : objectMapper.readValue(line, RegisterRequest.class);
+        } catch (IOException | IllegalArgumentException e) {
+            fail(result, lineNumber, null, "Malformed row");
+            return null;
+        }
+        if (isBlank(request.getUsername()) || isBlank(request.getPassword()) || isBlank(request.getRole())) {
+            fail(result, lineNumber, request.getUsername(), "username, password and role are required");
+            return null;
+        }
+        return new Row(lineNumber, authMapper.registerRequestToUser(request), request.getPassword());
+    }
+
+    private void writeBatch(List<Row> batch, ImportResult result) {
+        List<Row> hashed = hash(batch, result);
+        if (hashed.isEmpty()) {
+            return;
+        }
+
+        int[] counts = transactionTemplate.execute(status -> {
+            List<Long> ids = reserveIds(hashed.size());
+            List<Object[]> args = new ArrayList<>(hashed.size());
+            for (int i = 0; i < hashed.size(); i++) {
+                User user = hashed.get(i).user();
+                user.setId(ids.get(i));
+                args.add(new Object[]{ids.get(i), user.getUsername(), user.getPassword(), user.getRole()});
+            }
+            return jdbcTemplate.batchUpdate(INSERT_SQL, args);
+        });
+
+        for (int i = 0; i < hashed.size(); i++) {
+            Row row = hashed.get(i);
+            if (counts[i] == 0) {
+                fail(result, row.line(), row.user().getUsername(), "Username already exists");
+                continue;
+            }
+            usernameFilter.add(row.user().getUsername());
+            principalCache.invalidate(row.user().getUsername());
+            userEventPublisher.registered(row.user().getId(), row.user().getUsername(), row.user().getRole());
+            result.setImported(result.getImported() + 1);
+            importedRows.increment();
+        }
+    }
+
+    /**
+     * Hashes the batch on the shared pool with at most {@code hashingParallelism} passwords in flight,
+     * backing off while the pool's queue is full rather than failing rows.
+     */
+    private List<Row> hash(List<Row> batch, ImportResult result) {
+        Semaphore permits = new Semaphore(hashingParallelism);
+        List<CompletableFuture<String>> futures = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            permits.acquireUninterruptibly();
+            CompletableFuture<String> future = submit(row.password());
+            future.whenComplete((hash, error) -> permits.release());
+            futures.add(future);
+        }
+
+        List<Row> hashed = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Row row = batch.get(i);
+            try {
+                row.user().setPassword(futures.get(i).join());
+                hashed.add(row);
+            } catch (CompletionException e) {
+                log.warn("Hashing failed for import line {}: {}", row.line(), e.getMessage());
+                fail(result, row.line(), row.user().getUsername(), "Password hashing failed");
+            }
+        }
+        return hashed;
+    }
+
+    private CompletableFuture<String> submit(String password) {
+        while (true) {
+            try {
+                return passwordEncoder.encodeAsync(password);
+            } catch (HashingCapacityExceededException e) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return CompletableFuture.failedFuture(interrupted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserves ids the same way Hibernate's pooled-lo optimizer does: each {@code nextval} hands out
+     * {@link User#ID_ALLOCATION_SIZE} consecutive ids starting at the returned value.
+     */
+    private List<Long> reserveIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            Long start = jdbcTemplate.queryForObject("SELECT nextval('users_seq')", Long.class);
+            for (int i = 0; i < User.ID_ALLOCATION_SIZE && ids.size() < count; i++) {
+                ids.add(start + i);
+            }
+        }
+        return ids;
+    }
+
+    private void fail(ImportResult result, long line, String username, String reason) {
+        result.setFailed(result.getFailed() + 1);
+        failedRows.increment();
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ImportResult.RowError(line, username, reason));
+        }
+    }
+
+    /**
+     * Plain comma-separated {@code username,password,role}; quoted fields are not supported.
+     */
+    private static RegisterRequest parseCsv(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Expected 3 fields");
+        }
+        return new RegisterRequest(fields[0].trim(), fields[1].trim(), fields[2].trim());
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.trim().toLowerCase(Locale.ROOT).startsWith("username,");
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record Row(long line, User user, String password) {
+    }
+}
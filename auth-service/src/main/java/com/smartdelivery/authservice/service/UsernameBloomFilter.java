@@ -0,0 +1,216 @@
+package com.smartdelivery.authservice.service;
+
+import com.smartdelivery.authservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of taken usernames. A negative answer means the name is definitely free,
+ * so registration can skip the existence query; a positive one still has to be confirmed against
+ * the database. The filter is built by streaming the {@code users} table at startup and rebuilt
+ * periodically so that it is sized for the current user count.
+ * <p>
+ * Until the first build has finished every name is reported as possibly taken.
+ */
+@Component
+public class UsernameBloomFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameBloomFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int minExpectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile Bits current;
+    private volatile Bits rebuilding;
+
+    private final Counter definitelyFree;
+    private final Counter confirmedTaken;
+    private final Counter falsePositives;
+
+    public UsernameBloomFilter(UserRepository userRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${auth.username-filter.min-expected-insertions:100000}") int minExpectedInsertions,
+                               @Value("${auth.username-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                               MeterRegistry meterRegistry) {
+        if (minExpectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid username filter sizing");
+        }
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+
+        this.definitelyFree = checkCounter(meterRegistry, "definitely_free");
+        this.confirmedTaken = checkCounter(meterRegistry, "taken");
+        this.falsePositives = checkCounter(meterRegistry, "false_positive");
+        Gauge.builder("auth.username.filter.expected.fpp", this, UsernameBloomFilter::expectedFalsePositiveRate)
+                .description("False-positive probability implied by the filter's current fill ratio")
+                .register(meterRegistry);
+    }
+
+    public boolean mightContain(String username) {
+        Bits bits = current;
+        if (bits != null && !bits.mightContain(hash(username))) {
+            definitelyFree.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public void add(String username) {
+        long hash = hash(username);
+        Bits bits = current;
+        if (bits != null) {
+            bits.put(hash);
+        }
+        // Names taken while a rebuild is streaming the table must not be missing from its result.
+        Bits next = rebuilding;
+        if (next != null) {
+            next.put(hash);
+        }
+    }
+
+    /**
+     * Records the outcome of the database check that followed a positive answer.
+     */
+    public void recordConfirmation(boolean taken) {
+        (taken ? confirmedTaken : falsePositives).increment();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${auth.username-filter.rebuild-interval:PT1H}",
+            fixedDelayString = "${auth.username-filter.rebuild-interval:PT1H}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        long expected = Math.max(minExpectedInsertions, userRepository.count() * 2);
+        Bits next = Bits.create(expected, falsePositiveRate);
+        rebuilding = next;
+        try {
+            long loaded = transactionTemplate.execute(status -> {
+                try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                    return usernames.mapToLong(username -> {
+                        next.put(hash(username));
+                        return 1;
+                    }).sum();
+                }
+            });
+            current = next;
+            log.info("Built username filter with {} names ({} bits, {} hashes) in {} ms",
+                    loaded, next.size(), next.hashCount(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private double expectedFalsePositiveRate() {
+        Bits bits = current;
+        return bits != null ? Math.pow(bits.fillRatio(), bits.hashCount()) : 1.0;
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.username.filter.checks")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so the two 32-bit
+     * halves are independent enough for double hashing.
+     */
+    private static long hash(String username) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashCount;
+
+        private Bits(long size, int hashCount) {
+            this.words = new AtomicLongArray((int) ((size + 63) >>> 6));
+            this.size = size;
+            this.hashCount = hashCount;
+        }
+
+        static Bits create(long expectedInsertions, double falsePositiveRate) {
+            long size = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            size = Math.min(Math.max(size, 64), (long) Integer.MAX_VALUE * 64);
+            int hashCount = Math.max(1, (int) Math.round((double) size / expectedInsertions * Math.log(2)));
+            return new Bits(size, hashCount);
+        }
+
+        void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = index(h1, h2, i);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long value;
+                while (((value = words.get(word)) & mask) == 0
+                        && !words.compareAndSet(word, value, value | mask)) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = index(h1, h2, i);
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(int h1, int h2, int i) {
+            long combined = h1 + (long) i * h2;
+            return (combined < 0 ? ~combined : combined) % size;
+        }
+
+        double fillRatio() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return (double) set / size;
+        }
+
+        long size() {
+            return size;
+        }
+
+        int hashCount() {
+            return hashCount;
+        }
+    }
+}
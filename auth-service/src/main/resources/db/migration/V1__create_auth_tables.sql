@@ -0,0 +1,30 @@
+-- Matches the schema Hibernate's ddl-auto used to create, so databases created that way
+-- are adopted as they are. auth-service owns the users table; user-service only reads it.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT PRIMARY KEY,
+    username VARCHAR(255) UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    role     VARCHAR(255) NOT NULL
+);
+
+-- Users created before ids came from users_seq used an identity column; move the sequence past them.
+SELECT setval('users_seq', GREATEST(nextval('users_seq'), (SELECT COALESCE(MAX(id), 0) + 1 FROM users)), false);
+
+-- Serves user-service's listing by role: equality on role, then a range scan on id.
+CREATE INDEX IF NOT EXISTS idx_users_role_id ON users (role, id);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash VARCHAR(64)                 NOT NULL UNIQUE,
+    username   VARCHAR(255)                NOT NULL,
+    family_id  VARCHAR(36)                 NOT NULL,
+    used       BOOLEAN                     NOT NULL,
+    revoked    BOOLEAN                     NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
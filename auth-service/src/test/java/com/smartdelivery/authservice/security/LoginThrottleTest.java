@@ -0,0 +1,103 @@
+package com.smartdelivery.authservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoginThrottleTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long WINDOW = Duration.ofMinutes(1).toMillis();
+    private static final String ADDRESS = "10.0.0.1";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginThrottle throttle = new LoginThrottle(Duration.ofMinutes(1), 3, 10, Duration.ofSeconds(10),
+            Duration.ofSeconds(40), Duration.ofMinutes(5), meterRegistry);
+
+    @Test
+    void locksOutUsernameAtThreshold() {
+        fail("alice", NOW, 2);
+        assertEquals(Duration.ZERO, throttle.checkAllowed("alice", ADDRESS, NOW));
+
+        fail("alice", NOW, 1);
+        assertEquals(Duration.ofSeconds(10), throttle.checkAllowed("alice", ADDRESS, NOW));
+        assertEquals(Duration.ofSeconds(4), throttle.checkAllowed("alice", ADDRESS, NOW + 6_000));
+        assertEquals(Duration.ZERO, throttle.checkAllowed("alice", ADDRESS, NOW + 10_000));
+        assertEquals(Duration.ZERO, throttle.checkAllowed("bob", ADDRESS, NOW));
+        assertEquals(1.0, meterRegistry.get("auth.login.lockouts").tag("key", "username").counter().count());
+    }
+
+    @Test
+    void doublesTheLockoutUpToMaxLockout() {
+        long now = NOW;
+        for (long expected : new long[]{10, 20, 40, 40}) {
+            fail("alice", now, 3);
+            assertEquals(Duration.ofSeconds(expected), throttle.checkAllowed("alice", ADDRESS, now));
+            now += Duration.ofSeconds(expected).toMillis();
+        }
+    }
+
+    @Test
+    void weighsPreviousWindowByItsOverlap() {
+        fail("alice", NOW, 2);
+
+        // Halfway through the next window the two earlier failures count as one.
+        fail("alice", NOW + WINDOW + WINDOW / 2, 1);
+        assertEquals(Duration.ZERO, throttle.checkAllowed("alice", ADDRESS, NOW + WINDOW + WINDOW / 2));
+
+        fail("alice", NOW + WINDOW + WINDOW / 2, 1);
+        assertEquals(Duration.ofSeconds(10), throttle.checkAllowed("alice", ADDRESS, NOW + WINDOW + WINDOW / 2));
+    }
+
+    @Test
+    void forgetsFailuresOlderThanTwoWindows() {
+        fail("alice", NOW, 2);
+
+        fail("alice", NOW + 2 * WINDOW, 2);
+        assertEquals(Duration.ZERO, throttle.checkAllowed("alice", ADDRESS, NOW + 2 * WINDOW));
+    }
+
+    @Test
+    void locksOutAddressAcrossUsernames() {
+        for (int i = 0; i < 10; i++) {
+            throttle.recordFailure("user-" + i, ADDRESS, NOW);
+        }
+
+        assertEquals(Duration.ofSeconds(10), throttle.checkAllowed("someone-else", ADDRESS, NOW));
+        assertEquals(Duration.ZERO, throttle.checkAllowed("someone-else", "10.0.0.2", NOW));
+    }
+
+    @Test
+    void successClearsUsernameButNotAddress() {
+        for (int i = 0; i < 9; i++) {
+            throttle.recordFailure("alice", ADDRESS, NOW);
+            throttle.recordSuccess("alice");
+        }
+        assertEquals(Duration.ZERO, throttle.checkAllowed("alice", ADDRESS, NOW));
+
+        throttle.recordFailure("bob", ADDRESS, NOW);
+        assertEquals(Duration.ofSeconds(10), throttle.checkAllowed("alice", ADDRESS, NOW));
+    }
+
+    @Test
+    void evictingIdleKeysResetsTheLockoutLevel() {
+        fail("alice", NOW, 3);
+        long later = NOW + Duration.ofSeconds(10).toMillis();
+        fail("alice", later, 3);
+        assertEquals(Duration.ofSeconds(20), throttle.checkAllowed("alice", ADDRESS, later));
+
+        long idle = later + Duration.ofSeconds(20).toMillis() + Duration.ofMinutes(5).toMillis();
+        throttle.evictIdle(idle);
+        fail("alice", idle, 3);
+        assertEquals(Duration.ofSeconds(10), throttle.checkAllowed("alice", ADDRESS, idle));
+    }
+
+    private void fail(String username, long now, int times) {
+        for (int i = 0; i < times; i++) {
+            throttle.recordFailure(username, ADDRESS, now);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.smartdelivery.authservice.security;
+
+import com.smartdelivery.authservice.dto.TokenRevokedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationListTest {
+
+    private static final long TICK = 1000;
+    private static final int WHEEL_SIZE = 1024;
+
+    private final TokenRevocationList list = new TokenRevocationList(Duration.ofMillis(TICK), new SimpleMeterRegistry());
+    // Aligned to a tick boundary and later than the wheel's start, so every advance below moves it forward.
+    private final long start = (System.currentTimeMillis() / TICK + 1) * TICK;
+
+    @Test
+    void revokesUntilExpiry() {
+        assertTrue(list.revoke("jti", start + 5 * TICK, start));
+
+        assertTrue(list.isRevoked("jti", start));
+        assertTrue(list.isRevoked("jti", start + 5 * TICK - 1));
+        assertFalse(list.isRevoked("jti", start + 5 * TICK));
+        assertFalse(list.isRevoked("other", start));
+    }
+
+    @Test
+    void rejectsDuplicatesAndExpiredTokens() {
+        assertTrue(list.revoke("jti", start + TICK, start));
+        assertFalse(list.revoke("jti", start + 2 * TICK, start));
+        assertFalse(list.revoke("expired", start, start));
+        assertFalse(list.revoke(null, start + TICK, start));
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    void wheelDropsEntryOnlyOnceExpired() {
+        list.revoke("jti", start + 3 * TICK + 1, start);
+
+        advanceTickByTick(start, start + 3 * TICK);
+        assertEquals(1, list.size());
+
+        // The expiry is rounded up to the next tick, so the entry goes at start + 4 ticks.
+        list.advance(start + 4 * TICK);
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    void entryMoreThanOneTurnAwaySurvivesEarlierVisitsToItsSlot() {
+        long expiresAt = start + (WHEEL_SIZE + 10) * TICK;
+        list.revoke("far", expiresAt, start);
+        list.revoke("near", start + 10 * TICK, start);
+
+        // Slot of "far" and "near" is the same; the first visit drops "near" and re-queues "far".
+        advanceTickByTick(start, start + 10 * TICK);
+        assertEquals(1, list.size());
+        assertTrue(list.isRevoked("far", start + 10 * TICK));
+
+        advanceTickByTick(start + 11 * TICK, expiresAt - TICK);
+        assertEquals(1, list.size());
+
+        list.advance(expiresAt);
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    void catchesUpAfterAPauseLongerThanOneTurn() {
+        for (int i = 0; i < 100; i++) {
+            list.revoke("jti-" + i, start + (i + 1) * 20 * TICK, start);
+        }
+        list.revoke("live", start + 3 * WHEEL_SIZE * TICK, start);
+
+        list.advance(start + 2 * WHEEL_SIZE * TICK);
+
+        assertEquals(1, list.size());
+        assertTrue(list.isRevoked("live", start + 2 * WHEEL_SIZE * TICK));
+    }
+
+    @Test
+    void snapshotListsOnlyActiveRevocations() {
+        list.revoke("short", start + TICK, start);
+        list.revoke("long", start + 10 * TICK, start);
+
+        List<TokenRevokedEvent> snapshot = list.snapshot();
+
+        assertEquals(2, snapshot.size());
+    }
+
+    private void advanceTickByTick(long from, long to) {
+        for (long now = from; now <= to; now += TICK) {
+            list.advance(now);
+        }
+    }
+}
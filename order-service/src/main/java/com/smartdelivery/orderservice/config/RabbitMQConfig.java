@@ -9,11 +9,23 @@ import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class RabbitMQConfig {
+
+    public static final String NOTIFICATION_QUEUE = "notification.queue";
+
     @Bean
     public Queue orderQueue() {
         return new Queue("order.queue", true);
     }
 
+    /**
+     * Declared here as well as in notification-service so that outbox messages are routable even
+     * before notification-service has started; unroutable messages would be confirmed and dropped.
+     */
+    @Bean
+    public Queue notificationQueue() {
+        return new Queue(NOTIFICATION_QUEUE, true);
+    }
+
     @Bean
     public Jackson2JsonMessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
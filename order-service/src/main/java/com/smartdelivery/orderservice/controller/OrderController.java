@@ -1,19 +1,35 @@
 package com.smartdelivery.orderservice.controller;
 
+import com.smartdelivery.orderservice.dto.BatchOrderResult;
 import com.smartdelivery.orderservice.dto.OrderRequest;
+import com.smartdelivery.orderservice.dto.OrderResponse;
+import com.smartdelivery.orderservice.dto.OrderSummary;
 import com.smartdelivery.orderservice.entity.Order;
+import com.smartdelivery.orderservice.service.OrderBatchService;
 import com.smartdelivery.orderservice.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+
 @RestController
 @RequestMapping("/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String ADMIN_ROLE = "ROLE_ADMIN";
+
     private final OrderService orderService;
+    private final OrderBatchService orderBatchService;
 
     @PostMapping("/create")
     public ResponseEntity<Order> createOrder(@RequestBody OrderRequest orderRequest) {
@@ -21,8 +37,46 @@ public class OrderController {
         return new ResponseEntity<>(order, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    public ResponseEntity<BatchOrderResult> createOrders(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                         HttpServletRequest request) throws IOException {
+        boolean ndjson = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(NDJSON));
+        try {
+            return new ResponseEntity<>(orderBatchService.createOrders(request.getInputStream(), ndjson), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Keyset pagination: pass the {@code X-Next-Cursor} value of one page as {@code after} to get the
+     * next one. The header is absent on the last page.
+     * <p>
+     * Callers see the orders placed under their own username; only admins may name another customer.
+     */
+    @GetMapping
+    public ResponseEntity<List<OrderSummary>> getCustomerOrders(@RequestParam(required = false) String customer,
+                                                                @RequestParam(defaultValue = "0") long after,
+                                                                @RequestParam(defaultValue = "20") int limit,
+                                                                Authentication authentication) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> ADMIN_ROLE.equals(authority.getAuthority()));
+        if (customer == null) {
+            customer = authentication.getName();
+        } else if (!admin && !customer.equals(authentication.getName())) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        int pageSize = Math.min(Math.max(limit, 1), OrderService.MAX_PAGE_SIZE);
+        List<OrderSummary> orders = orderService.getCustomerOrders(customer, after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (orders.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, orders.get(orders.size() - 1).id().toString());
+        }
+        return response.body(orders);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrderById(@PathVariable("id") Long id) {
+    public ResponseEntity<OrderResponse> getOrderById(@PathVariable("id") Long id) {
         return orderService.getOrderById(id)
                 .map(order -> new ResponseEntity<>(order, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
@@ -0,0 +1,30 @@
+package com.smartdelivery.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchOrderResult {
+    private int total;
+    private int created;
+    private int failed;
+    private List<Item> results = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+        /**
+         * Position of the order in the request, starting at 0.
+         */
+        private int index;
+        private Long id;
+        private String error;
+    }
+}
@@ -0,0 +1,7 @@
+package com.smartdelivery.orderservice.dto;
+
+/**
+ * Immutable view of an order, safe to share between requests and to keep in the order cache.
+ */
+public record OrderResponse(Long id, String product, Integer quantity, Double price, String customerName) {
+}
@@ -0,0 +1,7 @@
+package com.smartdelivery.orderservice.dto;
+
+/**
+ * Entry in a customer's order history; the customer is implied by the query.
+ */
+public record OrderSummary(Long id, String product, Integer quantity, Double price) {
+}
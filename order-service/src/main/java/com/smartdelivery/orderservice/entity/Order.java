@@ -11,8 +11,16 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Table(name = "orders")
 public class Order {
+
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Sequence-backed so that inserts can be batched; each {@code nextval} reserves a block of
+     * {@link #ID_ALLOCATION_SIZE} ids starting at the returned value (pooled-lo).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = Order.ID_ALLOCATION_SIZE)
     private Long id;
     private String product;
     private Integer quantity;
@@ -1,6 +1,7 @@
 package com.smartdelivery.orderservice.mapper;
 
 import com.smartdelivery.orderservice.dto.OrderRequest;
+import com.smartdelivery.orderservice.dto.OrderResponse;
 import com.smartdelivery.orderservice.entity.Order;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingConstants;
@@ -11,4 +12,6 @@ public interface OrderMapper {
     OrderMapper INSTANCE = Mappers.getMapper(OrderMapper.class);
 
     Order orderRequestToOrder(OrderRequest request);
+
+    OrderResponse orderToOrderResponse(Order order);
 }
\ No newline at end of file
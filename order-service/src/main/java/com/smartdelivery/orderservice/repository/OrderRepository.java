@@ -1,7 +1,21 @@
 package com.smartdelivery.orderservice.repository;
 
+import com.smartdelivery.orderservice.dto.OrderSummary;
 import com.smartdelivery.orderservice.entity.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Keyset page of a customer's orders, served by the (customer_name, id) index: the cost does not
+     * depend on how many earlier pages there are.
+     */
+    @Query("select new com.smartdelivery.orderservice.dto.OrderSummary(o.id, o.product, o.quantity, o.price) "
+            + "from Order o where o.customerName = :customer and o.id > :after order by o.id")
+    List<OrderSummary> findPageByCustomerAfter(@Param("customer") String customer, @Param("after") long after, Limit limit);
 }
@@ -0,0 +1,18 @@
+package com.smartdelivery.orderservice.repository;
+
+import com.smartdelivery.orderservice.entity.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Oldest messages first. Rows locked by another relay are skipped, so several order-service
+     * instances can drain the outbox at once without publishing the same row twice.
+     */
+    @Query(value = "SELECT * FROM outbox_messages ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxMessage> lockNextBatch(@Param("limit") int limit);
+}
@@ -0,0 +1,224 @@
+package com.smartdelivery.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartdelivery.orderservice.dto.BatchOrderResult;
+import com.smartdelivery.orderservice.dto.OrderRequest;
+import com.smartdelivery.orderservice.entity.Order;
+import com.smartdelivery.orderservice.mapper.OrderMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Creates many orders from a JSON array or an NDJSON stream. Orders are read one at a time and
+ * stored in chunks, each chunk in its own transaction together with its outbox notifications, so
+ * Hibernate can send both as JDBC batches. Invalid orders are reported per item and do not stop
+ * the rest; a chunk that fails to store fails all of its orders.
+ */
+@Service
+public class OrderBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderBatchService.class);
+    private static final String LIMIT_EXCEEDED = "Batch limit of %d orders exceeded, remaining orders were not read";
+
+    private final OrderWriter orderWriter;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public OrderBatchService(OrderWriter orderWriter,
+                             OrderMapper orderMapper,
+                             ObjectMapper objectMapper,
+                             @Value("${orders.batch.chunk-size:500}") int chunkSize,
+                             @Value("${orders.batch.max-items:10000}") int maxItems) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Order batch chunk size must be positive");
+        }
+        this.orderWriter = orderWriter;
+        this.orderMapper = orderMapper;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Chunks are committed while the body is still being read, so a body that turns out to be malformed
+     * or too long partway through still returns the orders created so far; the index at which reading
+     * stopped is reported as failed and later orders are not read.
+     *
+     * @throws IllegalArgumentException if the body is not a JSON array at all
+     */
+    public BatchOrderResult createOrders(InputStream input, boolean ndjson) throws IOException {
+        Batch batch = new Batch();
+        if (ndjson) {
+            readLines(input, batch);
+        } else {
+            readArray(input, batch);
+        }
+        batch.flush();
+        batch.result.getResults().sort(Comparator.comparingInt(BatchOrderResult.Item::getIndex));
+        return batch.result;
+    }
+
+    private void readLines(InputStream input, Batch batch) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (batch.isFull()) {
+                    batch.stop(LIMIT_EXCEEDED.formatted(maxItems));
+                    return;
+                }
+                int index = batch.next();
+                try {
+                    batch.add(index, objectMapper.readValue(line, OrderRequest.class));
+                } catch (JsonProcessingException e) {
+                    batch.fail(index, "Malformed order");
+                }
+            }
+        }
+    }
+
+    private void readArray(InputStream input, Batch batch) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            try {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("Expected a JSON array of orders");
+                }
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+            while (true) {
+                JsonNode node;
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY) {
+                        return;
+                    }
+                    if (token == null) {
+                        throw new JsonParseException(parser, "Unterminated JSON array");
+                    }
+                    if (batch.isFull()) {
+                        batch.stop(LIMIT_EXCEEDED.formatted(maxItems));
+                        return;
+                    }
+                    node = parser.readValueAsTree();
+                } catch (JsonProcessingException e) {
+                    // Earlier chunks may already be committed, so report them instead of failing the request.
+                    batch.stop("Malformed JSON, remaining orders were not read: " + e.getOriginalMessage());
+                    return;
+                }
+                int index = batch.next();
+                try {
+                    batch.add(index, objectMapper.treeToValue(node, OrderRequest.class));
+                } catch (JsonProcessingException e) {
+                    batch.fail(index, "Malformed order");
+                }
+            }
+        }
+    }
+
+    private static String validate(OrderRequest request) {
+        if (request == null) {
+            return "Order is empty";
+        }
+        if (request.getProduct() == null || request.getProduct().isBlank()) {
+            return "Product is required";
+        }
+        if (request.getCustomerName() == null || request.getCustomerName().isBlank()) {
+            return "Customer name is required";
+        }
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            return "Quantity must be positive";
+        }
+        if (request.getPrice() == null || request.getPrice() < 0) {
+            return "Price must not be negative";
+        }
+        return null;
+    }
+
+    private record Pending(int index, Order order) {
+    }
+
+    /**
+     * Collects valid orders until a chunk is full and records the outcome of every item.
+     */
+    private final class Batch {
+
+        private final BatchOrderResult result = new BatchOrderResult();
+        private final List<Pending> chunk = new ArrayList<>(chunkSize);
+
+        int next() {
+            int index = result.getTotal();
+            result.setTotal(index + 1);
+            return index;
+        }
+
+        boolean isFull() {
+            return result.getTotal() >= maxItems;
+        }
+
+        /**
+         * Records that reading stopped at the next index; nothing after it is read or reported.
+         */
+        void stop(String error) {
+            fail(next(), error);
+        }
+
+        void add(int index, OrderRequest request) {
+            String error = validate(request);
+            if (error != null) {
+                fail(index, error);
+                return;
+            }
+            chunk.add(new Pending(index, orderMapper.orderRequestToOrder(request)));
+            if (chunk.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        void fail(int index, String error) {
+            result.getResults().add(new BatchOrderResult.Item(index, null, error));
+            result.setFailed(result.getFailed() + 1);
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Order> orders = chunk.stream().map(Pending::order).toList();
+            try {
+                orderWriter.saveAll(orders);
+                for (Pending pending : chunk) {
+                    result.getResults().add(new BatchOrderResult.Item(pending.index(), pending.order().getId(), null));
+                }
+                result.setCreated(result.getCreated() + chunk.size());
+            } catch (DataAccessException e) {
+                log.warn("Could not store {} orders: {}", chunk.size(), e.getMessage());
+                for (Pending pending : chunk) {
+                    fail(pending.index(), "Could not store order");
+                }
+            }
+            chunk.clear();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.smartdelivery.orderservice.service;
+
+import com.smartdelivery.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based read-through cache of order snapshots. Orders are not updated after they are
+ * created, so there is nothing to invalidate; the TTL is the only bound on staleness and must be
+ * revisited, together with an invalidation path, once orders can change.
+ */
+@Component
+public class OrderCache {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderCache.class);
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public OrderCache(@Value("${orders.cache.enabled:true}") boolean enabled,
+                      @Value("${orders.cache.max-size:100000}") int maxSize,
+                      @Value("${orders.cache.ttl:5m}") Duration ttl,
+                      MeterRegistry meterRegistry) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Order cache max size must be positive");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Order cache TTL must be positive");
+        }
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+
+        FunctionCounter.builder("orders.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("orders.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("orders.cache.evictions", evictions, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("orders.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached snapshot, or loads it and caches it. Missing orders are not cached.
+     */
+    public Optional<OrderResponse> get(Long id, Function<Long, Optional<OrderResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        Entry entry = entries.get(id);
+        long now = System.nanoTime();
+        if (entry != null && !entry.isExpired(now)) {
+            hits.incrementAndGet();
+            return Optional.of(entry.order());
+        }
+        if (entry != null && entries.remove(id, entry)) {
+            evictions.incrementAndGet();
+        }
+        misses.incrementAndGet();
+
+        Optional<OrderResponse> order = loader.apply(id);
+        if (order.isPresent()) {
+            if (entries.size() >= maxSize && !entries.containsKey(id)) {
+                evictOne();
+            }
+            entries.put(id, new Entry(order.get(), System.nanoTime() + ttlNanos));
+        }
+        return order;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.cache.cleanup-interval:PT1M}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            if (it.next().isExpired(now)) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            evictions.addAndGet(removed);
+            log.debug("Evicted {} expired orders from cache", removed);
+        }
+    }
+
+    private void evictOne() {
+        Iterator<Long> it = entries.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private record Entry(OrderResponse order, long expiresAtNanos) {
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+}
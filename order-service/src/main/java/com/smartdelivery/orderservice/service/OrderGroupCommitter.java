@@ -0,0 +1,197 @@
+package com.smartdelivery.orderservice.service;
+
+import com.smartdelivery.orderservice.entity.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Optional group commit for single order creates. Callers hand their order to a queue and wait;
+ * writer threads take whatever has queued up, waiting at most {@code max-wait} for more, and store
+ * up to {@code max-batch-size} orders in one transaction. Under load this turns hundreds of commits
+ * into a few, at the price of up to {@code max-wait} extra latency per order.
+ * <p>
+ * When a batch fails, its orders are retried one by one so a single bad order does not fail the
+ * others. When the queue is full the caller writes its order itself.
+ */
+@Component
+public class OrderGroupCommitter {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderGroupCommitter.class);
+
+    private final OrderWriter orderWriter;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Duration timeout;
+    private final BlockingQueue<Pending> queue;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchSizes;
+    private final Timer queueWait;
+    private final Counter bypassed;
+
+    public OrderGroupCommitter(OrderWriter orderWriter,
+                               @Value("${orders.group-commit.enabled:false}") boolean enabled,
+                               @Value("${orders.group-commit.max-batch-size:64}") int maxBatchSize,
+                               @Value("${orders.group-commit.max-wait:2ms}") Duration maxWait,
+                               @Value("${orders.group-commit.writers:2}") int writerCount,
+                               @Value("${orders.group-commit.queue-capacity:4096}") int queueCapacity,
+                               @Value("${orders.group-commit.timeout:10s}") Duration timeout,
+                               MeterRegistry meterRegistry) {
+        if (maxBatchSize <= 0 || writerCount <= 0) {
+            throw new IllegalArgumentException("Group commit batch size and writer count must be positive");
+        }
+        this.orderWriter = orderWriter;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.timeout = timeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.batchSizes = DistributionSummary.builder("orders.group-commit.batch.size").register(meterRegistry);
+        this.queueWait = Timer.builder("orders.group-commit.wait")
+                .description("Time an order waited for its batch to be written")
+                .register(meterRegistry);
+        this.bypassed = Counter.builder("orders.group-commit.bypassed").register(meterRegistry);
+        Gauge.builder("orders.group-commit.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+
+        if (enabled) {
+            for (int i = 0; i < writerCount; i++) {
+                Thread writer = new Thread(this::run, "order-group-commit-" + i);
+                writer.setDaemon(true);
+                writer.start();
+                writers.add(writer);
+            }
+        }
+    }
+
+    /**
+     * Stores the order, possibly together with other callers' orders, and returns it with its id.
+     *
+     * @throws IllegalStateException if the order was not written within {@code timeout}; it may still be
+     *                               written afterwards
+     */
+    public Order save(Order order) {
+        if (!enabled) {
+            return orderWriter.save(order);
+        }
+        Pending pending = new Pending(order, System.nanoTime(), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            bypassed.increment();
+            return orderWriter.save(order);
+        }
+        // stop() may have drained the queue between the running check and the offer.
+        if (!running && queue.remove(pending)) {
+            bypassed.increment();
+            return orderWriter.save(order);
+        }
+        try {
+            return pending.result().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Order was not written within " + timeout, e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    Pending next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown: write what has been collected, then drain the rest.
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        long start = System.nanoTime();
+        for (Pending pending : batch) {
+            queueWait.record(start - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        batchSizes.record(batch.size());
+        try {
+            List<Order> saved = orderWriter.saveAll(batch.stream().map(Pending::order).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            // Includes failures at commit, such as TransactionSystemException.
+            log.warn("Group commit of {} orders failed, retrying them one by one: {}", batch.size(), e.getMessage());
+            for (Pending pending : batch) {
+                writeAlone(pending);
+            }
+        }
+    }
+
+    private void writeAlone(Pending pending) {
+        try {
+            // The failed batch already took an id from the sequence; let the retry take a new one.
+            pending.order().setId(null);
+            pending.result().complete(orderWriter.save(pending.order()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread writer : writers) {
+            writer.interrupt();
+        }
+        for (Thread writer : writers) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Orders offered while the writers were exiting.
+        List<Pending> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+    }
+
+    private record Pending(Order order, long enqueuedAt, CompletableFuture<Order> result) {
+    }
+}
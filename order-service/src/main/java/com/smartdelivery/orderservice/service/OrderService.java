@@ -1,40 +1,43 @@
 package com.smartdelivery.orderservice.service;
 
-import com.smartdelivery.orderservice.dto.NotificationRequest;
 import com.smartdelivery.orderservice.dto.OrderRequest;
+import com.smartdelivery.orderservice.dto.OrderResponse;
+import com.smartdelivery.orderservice.dto.OrderSummary;
 import com.smartdelivery.orderservice.entity.Order;
 import com.smartdelivery.orderservice.mapper.OrderMapper;
 import com.smartdelivery.orderservice.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final OrderGroupCommitter groupCommitter;
     private final OrderMapper orderMapper;
+    private final OrderCache orderCache;
 
     public Order createOrder(OrderRequest orderRequest) {
-        Order order = orderRepository.save(orderMapper.orderRequestToOrder(orderRequest));
-
-        NotificationRequest notification = new NotificationRequest(
-                "New order created: " + order.getProduct(),
-                order.getCustomerName()
-        );
-
-        // Send notification to RabbitMQ queue
-        rabbitTemplate.convertAndSend("notification.queue", notification);
+        // With group commit enabled this shares a transaction with concurrent creates.
+        return groupCommitter.save(orderMapper.orderRequestToOrder(orderRequest));
+    }
 
-        return order;
+    /**
+     * One page of at most {@code limit} orders of the customer ordered by id, starting after the given id.
+     */
+    public List<OrderSummary> getCustomerOrders(String customer, long after, int limit) {
+        return orderRepository.findPageByCustomerAfter(customer, after, Limit.of(limit));
     }
 
-    public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+    public Optional<OrderResponse> getOrderById(Long id) {
+        return orderCache.get(id, key -> orderRepository.findById(key).map(orderMapper::orderToOrderResponse));
     }
 
 }
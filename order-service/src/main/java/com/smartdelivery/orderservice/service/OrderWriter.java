@@ -0,0 +1,49 @@
+package com.smartdelivery.orderservice.service;
+
+import com.smartdelivery.orderservice.config.RabbitMQConfig;
+import com.smartdelivery.orderservice.dto.NotificationRequest;
+import com.smartdelivery.orderservice.entity.Order;
+import com.smartdelivery.orderservice.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Stores orders together with their notification in the outbox, in one transaction. Notifications
+ * are published by the outbox relay after commit, so a broker outage does not slow down or lose
+ * orders.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderWriter {
+
+    private final OrderRepository orderRepository;
+    private final OutboxService outboxService;
+
+    @Transactional
+    public Order save(Order order) {
+        Order saved = orderRepository.save(order);
+        outboxService.enqueue("", RabbitMQConfig.NOTIFICATION_QUEUE, notificationFor(saved));
+        return saved;
+    }
+
+    /**
+     * With JDBC batching enabled both the orders and the outbox rows go out as batched inserts.
+     */
+    @Transactional
+    public List<Order> saveAll(List<Order> orders) {
+        List<Order> saved = orderRepository.saveAll(orders);
+        outboxService.enqueueAll("", RabbitMQConfig.NOTIFICATION_QUEUE,
+                saved.stream().map(OrderWriter::notificationFor).toList());
+        return saved;
+    }
+
+    private static NotificationRequest notificationFor(Order order) {
+        return new NotificationRequest(
+                "New order created: " + order.getProduct(),
+                order.getCustomerName()
+        );
+    }
+}
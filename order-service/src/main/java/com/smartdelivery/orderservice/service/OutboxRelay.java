@@ -0,0 +1,163 @@
+package com.smartdelivery.orderservice.service;
+
+import com.smartdelivery.orderservice.entity.OutboxMessage;
+import com.smartdelivery.orderservice.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes outbox rows in batches. A batch is sent without waiting between messages, then the
+ * publisher confirms are collected and only acknowledged rows are deleted; the rest are retried on
+ * the next poll. Delivery is therefore at least once: a crash after the broker confirmed but
+ * before the delete commits sends the row again with the same message id.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+    private final Counter published;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+    private final Timer lag;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       RabbitTemplate rabbitTemplate,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${orders.outbox.batch-size:100}") int batchSize,
+                       @Value("${orders.outbox.confirm-timeout:5s}") Duration confirmTimeout,
+                       MeterRegistry meterRegistry) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Outbox batch size must be positive");
+        }
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+
+        this.published = Counter.builder("orders.outbox.messages").tag("outcome", "published").register(meterRegistry);
+        this.failed = Counter.builder("orders.outbox.messages").tag("outcome", "failed").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("orders.outbox.batch.size").register(meterRegistry);
+        this.lag = Timer.builder("orders.outbox.lag")
+                .description("Time from enqueueing a message until the broker confirmed it")
+                .register(meterRegistry);
+        Gauge.builder("orders.outbox.oldest.age", oldestPendingMillis, OutboxRelay::ageSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Keeps draining while batches come back full and fully confirmed.
+     */
+    @Scheduled(fixedDelayString = "${orders.outbox.poll-interval:PT0.2S}")
+    public void drain() {
+        try {
+            Integer confirmed;
+            do {
+                confirmed = transactionTemplate.execute(status -> relayBatch());
+            } while (confirmed != null && confirmed == batchSize);
+        } catch (AmqpException e) {
+            log.warn("Outbox relay could not reach the broker: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> batch = outboxRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            oldestPendingMillis.set(0);
+            return 0;
+        }
+        oldestPendingMillis.set(batch.get(0).getCreatedAt().toEpochMilli());
+        batchSizes.record(batch.size());
+
+        List<CorrelationData> confirmations = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            CorrelationData correlation = new CorrelationData(message.getId().toString());
+            rabbitTemplate.send(message.getExchange(), message.getRoutingKey(), toAmqpMessage(message), correlation);
+            confirmations.add(correlation);
+        }
+
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        List<Long> confirmed = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxMessage message = batch.get(i);
+            if (awaitAck(confirmations.get(i), deadline)) {
+                confirmed.add(message.getId());
+                lag.record(Duration.between(message.getCreatedAt(), Instant.now()));
+            } else {
+                failed.increment();
+            }
+        }
+        if (!confirmed.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(confirmed);
+            published.increment(confirmed.size());
+        }
+        if (confirmed.size() < batch.size()) {
+            log.warn("{} of {} outbox messages were not confirmed and will be retried",
+                    batch.size() - confirmed.size(), batch.size());
+        }
+        return confirmed.size();
+    }
+
+    private boolean awaitAck(CorrelationData correlation, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return correlation.getFuture().get(remaining, TimeUnit.NANOSECONDS).isAck();
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Message toAmqpMessage(OutboxMessage message) {
+        return MessageBuilder.withBody(message.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .setMessageId("order-outbox-" + message.getId())
+                .setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, message.getPayloadType())
+                .build();
+    }
+
+    private static double ageSeconds(AtomicLong createdAtMillis) {
+        long createdAt = createdAtMillis.get();
+        return createdAt == 0 ? 0 : Math.max(0, System.currentTimeMillis() - createdAt) / 1000.0;
+    }
+}
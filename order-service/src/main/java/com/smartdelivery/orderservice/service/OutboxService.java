@@ -0,0 +1,49 @@
+package com.smartdelivery.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartdelivery.orderservice.entity.OutboxMessage;
+import com.smartdelivery.orderservice.repository.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Records messages to publish as part of the caller's transaction; {@link OutboxRelay} sends them
+ * once the transaction has committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String exchange, String routingKey, Object payload) {
+        outboxRepository.save(toMessage(exchange, routingKey, payload));
+    }
+
+    /**
+     * Same as {@link #enqueue} for many payloads, stored with one batched insert.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(String exchange, String routingKey, List<?> payloads) {
+        outboxRepository.saveAll(payloads.stream()
+                .map(payload -> toMessage(exchange, routingKey, payload))
+                .toList());
+    }
+
+    private OutboxMessage toMessage(String exchange, String routingKey, Object payload) {
+        try {
+            return new OutboxMessage(null, exchange, routingKey, payload.getClass().getName(),
+                    objectMapper.writeValueAsString(payload), Instant.now());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload " + payload.getClass().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+-- Matches the schema Hibernate's ddl-auto used to create, so databases created that way
+-- are adopted as they are.
+
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS orders (
+    id            BIGINT PRIMARY KEY,
+    product       VARCHAR(255),
+    quantity      INTEGER,
+    price         DOUBLE PRECISION,
+    customer_name VARCHAR(255)
+);
+
+-- Orders created before ids came from orders_seq used an identity column; move the sequence past them.
+SELECT setval('orders_seq', GREATEST(nextval('orders_seq'), (SELECT COALESCE(MAX(id), 0) + 1 FROM orders)), false);
+
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_messages (
+    id           BIGINT PRIMARY KEY,
+    exchange     VARCHAR(255)             NOT NULL,
+    routing_key  VARCHAR(255)             NOT NULL,
+    payload_type VARCHAR(255)             NOT NULL,
+    payload      TEXT                     NOT NULL,
+    created_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,2 @@
+-- Serves GET /orders?customer=...&after=...: equality on customer_name, then a range scan on id.
+CREATE INDEX IF NOT EXISTS idx_orders_customer_id ON orders (customer_name, id);
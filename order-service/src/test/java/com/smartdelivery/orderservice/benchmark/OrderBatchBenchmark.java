@@ -0,0 +1,77 @@
+package com.smartdelivery.orderservice.benchmark;
+
+import com.smartdelivery.orderservice.dto.BatchOrderResult;
+import com.smartdelivery.orderservice.dto.OrderRequest;
+import com.smartdelivery.orderservice.service.OrderBatchService;
+import com.smartdelivery.orderservice.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares order creation throughput of {@code POST /orders/create} called once per order with
+ * {@code POST /orders/batch}, at the service layer against the configured Postgres database.
+ * Skipped unless run explicitly:
+ * <pre>
+ * mvn test -Dtest=OrderBatchBenchmark -Dbenchmark=true [-Dbenchmark.orders=20000]
+ * </pre>
+ * The orders and their outbox rows are left in the database.
+ */
+@SpringBootTest(properties = "eureka.client.enabled=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderBatchBenchmark {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 20_000);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+
+    @Test
+    void singleVersusBatch() throws IOException {
+        // Warm up both paths so that JIT and connection pool effects do not favour the second one.
+        single(ORDERS / 10);
+        batch(ORDERS / 10);
+
+        long start = System.nanoTime();
+        single(ORDERS);
+        report("Single", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        BatchOrderResult result = batch(ORDERS);
+        report("Batch", System.nanoTime() - start);
+        assertEquals(ORDERS, result.getCreated());
+    }
+
+    private void single(int count) {
+        for (int i = 0; i < count; i++) {
+            orderService.createOrder(new OrderRequest("product-" + i, 1 + i % 5, 9.99, "customer-" + i % 1000));
+        }
+    }
+
+    private BatchOrderResult batch(int count) throws IOException {
+        StringBuilder body = new StringBuilder(count * 80);
+        for (int i = 0; i < count; i++) {
+            body.append("{\"product\":\"product-").append(i)
+                    .append("\",\"quantity\":").append(1 + i % 5)
+                    .append(",\"price\":9.99,\"customerName\":\"customer-").append(i % 1000)
+                    .append("\"}\n");
+        }
+        return orderBatchService.createOrders(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), true);
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.printf("%s: %d orders in %d ms, %.0f orders/s%n",
+                name, ORDERS, nanos / 1_000_000, ORDERS * 1e9 / nanos);
+    }
+}
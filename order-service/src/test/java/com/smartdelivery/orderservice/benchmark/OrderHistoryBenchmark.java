@@ -0,0 +1,106 @@
+package com.smartdelivery.orderservice.benchmark;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Shows that a keyset page of a customer's order history costs the same at any depth, while the
+ * equivalent OFFSET page grows with the number of rows skipped. Runs against a temporary copy of the
+ * orders table with the index from {@code V2__index_orders_by_customer.sql}. Skipped unless run
+ * explicitly:
+ * <pre>
+ * mvn test -Dtest=OrderHistoryBenchmark -Dbenchmark=true [-Dbenchmark.orders=10000000]
+ *     [-Dbenchmark.jdbc.url=... -Dbenchmark.jdbc.username=... -Dbenchmark.jdbc.password=...]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderHistoryBenchmark {
+
+    private static final int CUSTOMERS = 10;
+    private static final int PAGE_SIZE = 20;
+    private static final int RUNS = 50;
+
+    private static final String KEYSET = "SELECT id, product, quantity, price FROM bench_orders "
+            + "WHERE customer_name = ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String OFFSET = "SELECT id, product, quantity, price FROM bench_orders "
+            + "WHERE customer_name = ? ORDER BY id OFFSET ? LIMIT ?";
+
+    @Test
+    void pageFetchByDepth() throws SQLException {
+        long orders = Long.getLong("benchmark.orders", 10_000_000L);
+        Connection connection = connect();
+        Assumptions.assumeTrue(connection != null, "Postgres is not reachable");
+        try (connection) {
+            load(connection, orders);
+            long perCustomer = orders / CUSTOMERS;
+            System.out.printf("%12s %14s %14s%n", "depth", "keyset ms", "offset ms");
+            for (long depth : new long[]{0, 1_000, 10_000, 100_000, perCustomer / 2, perCustomer - PAGE_SIZE}) {
+                if (depth < 0 || depth >= perCustomer) {
+                    continue;
+                }
+                // Customer 0 owns ids 10, 20, 30, ...: the row at a given depth has id 10 * (depth + 1).
+                long after = CUSTOMERS * depth;
+                double keyset = time(connection, KEYSET, after);
+                double offset = time(connection, OFFSET, depth);
+                System.out.printf("%12d %14.3f %14.3f%n", depth, keyset, offset);
+            }
+        }
+    }
+
+    private static Connection connect() {
+        String url = System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5433/SmartDelivery");
+        try {
+            return DriverManager.getConnection(url,
+                    System.getProperty("benchmark.jdbc.username", "timofey"),
+                    System.getProperty("benchmark.jdbc.password", "password"));
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static void load(Connection connection, long orders) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TEMPORARY TABLE bench_orders (id bigint PRIMARY KEY, product varchar(255), "
+                    + "quantity integer, price double precision, customer_name varchar(255))");
+            ddl.execute("INSERT INTO bench_orders SELECT g, 'product-' || g, 1 + g % 5, 9.99, 'customer-' || g % "
+                    + CUSTOMERS + " FROM generate_series(1, " + orders + ") g");
+            ddl.execute("CREATE INDEX ON bench_orders (customer_name, id)");
+            ddl.execute("ANALYZE bench_orders");
+        }
+        System.out.printf("Loaded %d orders in %d ms%n", orders, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return mean milliseconds per page after a warm-up run
+     */
+    private static double time(Connection connection, String sql, long position) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            query.setString(1, "customer-0");
+            query.setLong(2, position);
+            query.setInt(3, PAGE_SIZE);
+            fetch(query);
+            long start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                fetch(query);
+            }
+            return (System.nanoTime() - start) / 1e6 / RUNS;
+        }
+    }
+
+    private static void fetch(PreparedStatement query) throws SQLException {
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                resultSet.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.smartdelivery.orderservice.service;
+
+import com.smartdelivery.orderservice.entity.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderGroupCommitterTest {
+
+    private final StubOrderWriter writer = new StubOrderWriter();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private OrderGroupCommitter committer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.release.countDown();
+        if (committer != null) {
+            committer.stop();
+        }
+        callers.shutdownNow();
+    }
+
+    @Test
+    void writesDirectlyWhenDisabled() {
+        committer = committer(false, 4, Duration.ofSeconds(5));
+
+        assertNotNull(committer.save(order("a")).getId());
+        assertEquals(List.of(), writer.batchSizes);
+        assertEquals(1, writer.singleSaves.size());
+    }
+
+    @Test
+    void batchesQueuedOrdersUpToMaxBatchSize() throws Exception {
+        writer.blockBatches();
+        committer = committer(true, 4, Duration.ofSeconds(5));
+
+        // The first order occupies the only writer, so the next ones queue up behind it.
+        List<CompletableFuture<Order>> results = new ArrayList<>();
+        results.add(submit(order("first")));
+        assertTrue(writer.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 8; i++) {
+            results.add(submit(order("queued-" + i)));
+        }
+        awaitQueueDepth(8);
+        writer.release.countDown();
+
+        for (CompletableFuture<Order> result : results) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS).getId());
+        }
+        assertEquals(List.of(1, 4, 4), writer.batchSizes);
+    }
+
+    @Test
+    void retriesFailedBatchOneByOneWithFreshIds() throws Exception {
+        writer.blockBatches();
+        writer.failBatches = true;
+        committer = committer(true, 8, Duration.ofSeconds(5));
+
+        CompletableFuture<Order> first = submit(order("first"));
+        assertTrue(writer.entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Order> good = submit(order("good"));
+        CompletableFuture<Order> bad = submit(order("bad"));
+        awaitQueueDepth(2);
+        writer.release.countDown();
+
+        assertNotNull(first.get(5, TimeUnit.SECONDS).getId());
+        assertNotNull(good.get(5, TimeUnit.SECONDS).getId());
+        Exception failure = assertThrows(Exception.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause() instanceof IllegalArgumentException, failure.toString());
+        // Every retried order reached save() without the id the failed batch had assigned.
+        assertEquals(List.of(true, true), writer.singleSaves);
+    }
+
+    @Test
+    void failsCallerAfterTimeout() throws Exception {
+        writer.blockBatches();
+        committer = committer(true, 4, Duration.ofMillis(100));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> committer.save(order("slow")));
+        assertTrue(e.getMessage().contains("not written"));
+    }
+
+    @Test
+    void stopWritesOrdersStillQueued() throws Exception {
+        writer.blockBatches();
+        committer = committer(true, 2, Duration.ofSeconds(10));
+
+        List<CompletableFuture<Order>> results = new ArrayList<>();
+        results.add(submit(order("first")));
+        assertTrue(writer.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            results.add(submit(order("queued-" + i)));
+        }
+        awaitQueueDepth(5);
+
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(() -> {
+            try {
+                committer.stop();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }, callers);
+        writer.release.countDown();
+        stopped.get(15, TimeUnit.SECONDS);
+
+        for (CompletableFuture<Order> result : results) {
+            assertNotNull(result.get(5, TimeUnit.SECONDS).getId());
+        }
+    }
+
+    @Test
+    void writesDirectlyOnceStopped() throws Exception {
+        committer = committer(true, 4, Duration.ofSeconds(5));
+        committer.stop();
+
+        assertNotNull(committer.save(order("late")).getId());
+        assertEquals(1, writer.singleSaves.size());
+        assertEquals(1.0, meterRegistry.get("orders.group-commit.bypassed").counter().count());
+    }
+
+    @Test
+    void noCallerHangsWhileStopping() throws Exception {
+        committer = committer(true, 4, Duration.ofSeconds(5));
+
+        List<CompletableFuture<Order>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            results.add(submit(order("order-" + i)));
+            if (i == 100) {
+                committer.stop();
+            }
+        }
+
+        for (CompletableFuture<Order> result : results) {
+            assertNotNull(result.get(10, TimeUnit.SECONDS).getId());
+        }
+    }
+
+    private OrderGroupCommitter committer(boolean enabled, int maxBatchSize, Duration timeout) {
+        return new OrderGroupCommitter(writer, enabled, maxBatchSize, Duration.ofMillis(50), 1, 64, timeout,
+                meterRegistry);
+    }
+
+    private CompletableFuture<Order> submit(Order order) {
+        return CompletableFuture.supplyAsync(() -> committer.save(order), callers);
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("orders.group-commit.queue.depth").gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "queue did not reach " + depth);
+            Thread.sleep(5);
+        }
+    }
+
+    private static Order order(String product) {
+        return new Order(null, product, 1, 9.99, "customer");
+    }
+
+    /**
+     * Assigns ids like the sequence would. Batches fail as a whole if one of their orders is "bad",
+     * and a single "bad" order fails on its own.
+     */
+    private static final class StubOrderWriter extends OrderWriter {
+
+        private final AtomicLong ids = new AtomicLong();
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private final List<Boolean> singleSaves = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean blockFirstBatch;
+        private volatile boolean failBatches;
+
+        StubOrderWriter() {
+            super(null, null);
+        }
+
+        void blockBatches() {
+            blockFirstBatch = true;
+        }
+
+        @Override
+        public Order save(Order order) {
+            singleSaves.add(order.getId() == null);
+            if ("bad".equals(order.getProduct())) {
+                throw new IllegalArgumentException("bad order");
+            }
+            order.setId(ids.incrementAndGet());
+            return order;
+        }
+
+        @Override
+        public List<Order> saveAll(List<Order> orders) {
+            orders.forEach(order -> order.setId(ids.incrementAndGet()));
+            if (blockFirstBatch) {
+                blockFirstBatch = false;
+                entered.countDown();
+                awaitRelease();
+            }
+            batchSizes.add(orders.size());
+            if (failBatches && orders.size() > 1) {
+                throw new TransactionSystemException("commit failed");
+            }
+            return orders;
+        }
+
+        /**
+         * Ignores interrupts, as a JDBC call in progress would, so stop() has to wait for the batch.
+         */
+        private void awaitRelease() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.smartdelivery.userservice.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    @Bean
+    public TopicExchange userExchange(@Value("${users.events.exchange}") String exchange) {
+        return new TopicExchange(exchange);
+    }
+
+    /**
+     * Per-instance queue: every replica keeps its own copy of the read model.
+     */
+    @Bean
+    public Queue userEventQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding userEventBinding(Queue userEventQueue, TopicExchange userExchange) {
+        return BindingBuilder.bind(userEventQueue).to(userExchange).with("user.#");
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
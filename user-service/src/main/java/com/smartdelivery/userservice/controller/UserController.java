@@ -3,8 +3,13 @@ package com.smartdelivery.userservice.controller;
 import com.smartdelivery.userservice.dto.UserResponse;
 import com.smartdelivery.userservice.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -13,6 +18,9 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final UserService userService;
 
     @GetMapping("/me")
@@ -20,8 +28,42 @@ public class UserController {
         return userService.getProfile(authentication.getName());
     }
 
+    /**
+     * Keyset pagination: pass the {@code X-Next-Cursor} value of one page as {@code after} to get the
+     * next one. The header is absent on the last page.
+     */
     @GetMapping()
-    public List<UserResponse> getCouriers() {
-        return userService.getAllUsers();
+    public ResponseEntity<List<UserResponse>> getCouriers(@RequestParam(required = false) String role,
+                                                          @RequestParam(defaultValue = "0") long after,
+                                                          @RequestParam(defaultValue = "100") int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), UserService.MAX_PAGE_SIZE);
+        List<UserResponse> users = userService.getUsers(role, after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (users.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, users.get(users.size() - 1).getId().toString());
+        }
+        return response.body(users);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<UserResponse>> searchUsers(@RequestParam(defaultValue = "") String prefix,
+                                                          @RequestParam(required = false) String role,
+                                                          @RequestParam(defaultValue = "10") int limit) {
+        // Results come only from memory, so refuse rather than answer from a half-loaded index.
+        if (!userService.isSearchReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        int size = Math.min(Math.max(limit, 1), UserService.MAX_SEARCH_RESULTS);
+        return ResponseEntity.ok(userService.searchUsers(prefix.trim(), role, size));
+    }
+
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamCouriers(@RequestParam(required = false) String role,
+                                                                @RequestParam(defaultValue = "0") long after) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(out -> userService.streamUsers(role, after, out));
     }
 }
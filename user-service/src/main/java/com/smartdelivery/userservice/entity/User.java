@@ -2,8 +2,14 @@ package com.smartdelivery.userservice.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Immutable;
 
+/**
+ * Read-only view of the users table, which auth-service owns: it assigns ids from
+ * {@code users_seq} and creates the table and its indexes through its migrations.
+ */
 @Entity
+@Immutable
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -11,7 +17,6 @@ import lombok.*;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(unique = true)
@@ -23,4 +28,3 @@ public class User {
     @Column(nullable = false)
     private String role;
 }
-
@@ -0,0 +1,19 @@
+package com.smartdelivery.userservice.listener;
+
+import com.smartdelivery.userservice.dto.UserEvent;
+import com.smartdelivery.userservice.service.UserReadModel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserEventListener {
+
+    private final UserReadModel readModel;
+
+    @RabbitListener(queues = "#{userEventQueue.name}")
+    public void handle(UserEvent event) {
+        readModel.apply(event);
+    }
+}
@@ -1,11 +1,40 @@
 package com.smartdelivery.userservice.repository;
 
+import com.smartdelivery.userservice.dto.UserResponse;
 import com.smartdelivery.userservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    @Query("select new com.smartdelivery.userservice.dto.UserResponse(u.id, u.username, u.role) "
+            + "from User u where u.id > :after order by u.id")
+    List<UserResponse> findPageAfter(@Param("after") long after, Limit limit);
+
+    @Query("select new com.smartdelivery.userservice.dto.UserResponse(u.id, u.username, u.role) "
+            + "from User u where u.role = :role and u.id > :after order by u.id")
+    List<UserResponse> findPageByRoleAfter(@Param("role") String role, @Param("after") long after, Limit limit);
+
+    /**
+     * Must be consumed inside a transaction; rows are fetched from the cursor in chunks.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.smartdelivery.userservice.dto.UserResponse(u.id, u.username, u.role) "
+            + "from User u where u.id > :after order by u.id")
+    Stream<UserResponse> streamAfter(@Param("after") long after);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.smartdelivery.userservice.dto.UserResponse(u.id, u.username, u.role) "
+            + "from User u where u.role = :role and u.id > :after order by u.id")
+    Stream<UserResponse> streamByRoleAfter(@Param("role") String role, @Param("after") long after);
 }
@@ -0,0 +1,174 @@
+package com.smartdelivery.userservice.service;
+
+import com.smartdelivery.userservice.dto.UserEvent;
+import com.smartdelivery.userservice.dto.UserResponse;
+import com.smartdelivery.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory copy of the users table keyed by username. It is loaded from the database once the
+ * application is ready and then follows the user events auth-service publishes after each commit.
+ * <p>
+ * Events always overwrite; rows from the initial load or from a database fallback are only added
+ * when no event has filled the entry yet, because they may have been read before that event's
+ * commit. A user missing from the model is looked up in the database by the caller.
+ * <p>
+ * Every change is mirrored into a {@link UsernamePrefixIndex} for typeahead search.
+ */
+@Component
+public class UserReadModel {
+
+    private static final Logger log = LoggerFactory.getLogger(UserReadModel.class);
+
+    private final Map<String, UserResponse> users = new ConcurrentHashMap<>();
+    private final UsernamePrefixIndex index = new UsernamePrefixIndex();
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicLong lastUpdateMillis = new AtomicLong(System.currentTimeMillis());
+    private volatile boolean loaded;
+
+    private final long initialRetryDelayMillis;
+    private final long maxRetryDelayMillis;
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-read-model-load");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter hits;
+    private final Counter fallbacks;
+    private final Timer eventLag;
+
+    public UserReadModel(UserRepository userRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${users.read-model.retry.initial-delay:1s}") Duration initialRetryDelay,
+                         @Value("${users.read-model.retry.max-delay:1m}") Duration maxRetryDelay,
+                         MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.initialRetryDelayMillis = initialRetryDelay.toMillis();
+        this.maxRetryDelayMillis = maxRetryDelay.toMillis();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        this.hits = Counter.builder("users.read-model.lookups").tag("result", "hit").register(meterRegistry);
+        this.fallbacks = Counter.builder("users.read-model.lookups").tag("result", "fallback").register(meterRegistry);
+        this.eventLag = Timer.builder("users.read-model.event.lag")
+                .description("Time from the change in auth-service until it is visible here")
+                .register(meterRegistry);
+        Gauge.builder("users.read-model.size", users, Map::size).register(meterRegistry);
+        Gauge.builder("users.read-model.last-update.age", lastUpdateMillis,
+                        last -> TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - last.get()))
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        load(initialRetryDelayMillis);
+    }
+
+    /**
+     * Loads the model, retrying with doubling delays until it succeeds, for example when the
+     * database was not reachable yet at startup.
+     */
+    private void load(long retryDelayMillis) {
+        long start = System.nanoTime();
+        try {
+            Long count = readOnlyTransaction.execute(status -> {
+                try (Stream<UserResponse> rows = userRepository.streamAfter(0)) {
+                    return rows.filter(this::addIfAbsent).count();
+                }
+            });
+            lastUpdateMillis.set(System.currentTimeMillis());
+            loaded = true;
+            log.info("Loaded {} users into the read model in {} ms", count,
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (RuntimeException e) {
+            log.error("Could not load the user read model, retrying in {} ms; lookups fall back to the database: {}",
+                    retryDelayMillis, e.getMessage());
+            long nextDelayMillis = Math.min(maxRetryDelayMillis, retryDelayMillis * 2);
+            retryScheduler.schedule(() -> load(nextDelayMillis), retryDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        retryScheduler.shutdownNow();
+    }
+
+    /**
+     * @return the user, or {@code null} if the caller has to ask the database
+     */
+    public UserResponse find(String username) {
+        UserResponse user = users.get(username);
+        (user != null ? hits : fallbacks).increment();
+        return user;
+    }
+
+    /**
+     * Remembers a user that was read from the database after a miss.
+     */
+    public void fill(UserResponse user) {
+        addIfAbsent(user);
+    }
+
+    /**
+     * Answers only from memory. Before the initial load has finished the result may be incomplete,
+     * which callers can check with {@link #isLoaded()}.
+     */
+    public List<UserResponse> search(String prefix, String role, int limit) {
+        return index.search(prefix, role, limit);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void apply(UserEvent event) {
+        if (event.getUsername() == null) {
+            return;
+        }
+        UserResponse updated = new UserResponse(event.getId(), event.getUsername(), event.getRole());
+        users.compute(event.getUsername(), (username, previous) -> {
+            if (previous != null) {
+                index.remove(previous);
+            }
+            index.add(updated);
+            return updated;
+        });
+        long now = System.currentTimeMillis();
+        lastUpdateMillis.set(now);
+        if (event.getOccurredAtMillis() > 0) {
+            eventLag.record(Math.max(0, now - event.getOccurredAtMillis()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private boolean addIfAbsent(UserResponse user) {
+        return users.computeIfAbsent(user.getUsername(), username -> {
+            index.add(user);
+            return user;
+        }) == user;
+    }
+}
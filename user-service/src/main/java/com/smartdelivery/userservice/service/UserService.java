@@ -1,29 +1,96 @@
 package com.smartdelivery.userservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartdelivery.userservice.dto.UserResponse;
 import com.smartdelivery.userservice.entity.User;
 import com.smartdelivery.userservice.mapper.UserMapper;
 import com.smartdelivery.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_SEARCH_RESULTS = 100;
+    private static final String ROLE_PREFIX = "ROLE_";
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserReadModel readModel;
+    private final ObjectMapper objectMapper;
 
     public UserResponse getProfile(String username) {
+        UserResponse cached = readModel.find(username);
+        if (cached != null) {
+            return cached;
+        }
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        return userMapper.userToUserResponse(user);
+        UserResponse response = userMapper.userToUserResponse(user);
+        readModel.fill(response);
+        return response;
+    }
+
+    /**
+     * One page of at most {@code limit} users ordered by id, starting after the given id.
+     */
+    public List<UserResponse> getUsers(String role, long after, int limit) {
+        Limit pageSize = Limit.of(limit);
+        String authority = toAuthority(role);
+        return authority == null
+                ? userRepository.findPageAfter(after, pageSize)
+                : userRepository.findPageByRoleAfter(authority, after, pageSize);
+    }
+
+    /**
+     * Writes every matching user as one JSON object per line, reading from a database cursor so
+     * memory use does not grow with the number of users.
+     */
+    @Transactional(readOnly = true)
+    public void streamUsers(String role, long after, OutputStream out) throws IOException {
+        String authority = toAuthority(role);
+        try (Stream<UserResponse> users = authority == null
+                ? userRepository.streamAfter(after)
+                : userRepository.streamByRoleAfter(authority, after)) {
+            Iterator<UserResponse> it = users.iterator();
+            while (it.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(it.next()));
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Typeahead over usernames, answered from the read model without querying the database.
+     */
+    public List<UserResponse> searchUsers(String prefix, String role, int limit) {
+        return readModel.search(prefix, toAuthority(role), limit);
+    }
+
+    public boolean isSearchReady() {
+        return readModel.isLoaded();
     }
 
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(userMapper::userToUserResponse).toList();
+    /**
+     * Accepts both {@code COURIER} and {@code ROLE_COURIER}.
+     */
+    private String toAuthority(String role) {
+        if (role == null || role.isBlank()) {
+            return null;
+        }
+        String upper = role.trim().toUpperCase(Locale.ROOT);
+        return upper.startsWith(ROLE_PREFIX) ? upper : ROLE_PREFIX + upper;
     }
 }
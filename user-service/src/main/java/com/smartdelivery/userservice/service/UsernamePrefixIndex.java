@@ -0,0 +1,77 @@
+package com.smartdelivery.userservice.service;
+
+import com.smartdelivery.userservice.dto.UserResponse;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Case-insensitive prefix index over usernames, one sorted map per role plus one for all users.
+ * A search seeks to the first key at or after the prefix and walks forward, so it costs
+ * O(log n + limit) regardless of how many users match.
+ * <p>
+ * Keys are the lower-cased username followed by the username itself, which keeps names that
+ * differ only in case apart while ordering them together.
+ */
+public class UsernamePrefixIndex {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final NavigableMap<String, UserResponse> all = new ConcurrentSkipListMap<>();
+    private final Map<String, NavigableMap<String, UserResponse>> byRole = new ConcurrentHashMap<>();
+
+    public void add(UserResponse user) {
+        String key = key(user.getUsername());
+        all.put(key, user);
+        if (user.getRole() != null) {
+            byRole.computeIfAbsent(user.getRole(), role -> new ConcurrentSkipListMap<>()).put(key, user);
+        }
+    }
+
+    public void remove(UserResponse user) {
+        String key = key(user.getUsername());
+        all.remove(key);
+        if (user.getRole() != null) {
+            NavigableMap<String, UserResponse> users = byRole.get(user.getRole());
+            if (users != null) {
+                users.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @param role stored role such as {@code ROLE_COURIER}, or {@code null} for every role
+     * @return at most {@code limit} users whose name starts with {@code prefix}, in name order
+     */
+    public List<UserResponse> search(String prefix, String role, int limit) {
+        NavigableMap<String, UserResponse> users = role == null ? all : byRole.get(role);
+        if (users == null || limit <= 0) {
+            return List.of();
+        }
+        String from = prefix.toLowerCase(Locale.ROOT);
+        List<UserResponse> result = new ArrayList<>(Math.min(limit, 64));
+        Iterator<Map.Entry<String, UserResponse>> it = users.tailMap(from, true).entrySet().iterator();
+        while (result.size() < limit && it.hasNext()) {
+            Map.Entry<String, UserResponse> entry = it.next();
+            if (!entry.getKey().startsWith(from)) {
+                break;
+            }
+            result.add(entry.getValue());
+        }
+        return result;
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT) + SEPARATOR + username;
+    }
+}
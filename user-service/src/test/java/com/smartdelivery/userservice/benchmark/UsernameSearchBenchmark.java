@@ -0,0 +1,170 @@
+package com.smartdelivery.userservice.benchmark;
+
+import com.smartdelivery.userservice.dto.UserResponse;
+import com.smartdelivery.userservice.service.UsernamePrefixIndex;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares {@link UsernamePrefixIndex} with an indexed {@code LIKE 'x%'} query over the same users.
+ * Skipped unless run explicitly:
+ * <pre>
+ * mvn test -Dtest=UsernameSearchBenchmark -Dbenchmark=true [-Dbenchmark.users=1000000]
+ *     [-Dbenchmark.jdbc.url=... -Dbenchmark.jdbc.username=... -Dbenchmark.jdbc.password=...]
+ * </pre>
+ * The database half uses a temporary table and is skipped when Postgres is not reachable.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UsernameSearchBenchmark {
+
+    private static final String[] ROLES = {"ROLE_USER", "ROLE_COURIER", "ROLE_ADMIN"};
+    private static final String ROLE = "ROLE_COURIER";
+    private static final int LIMIT = 10;
+    private static final int WARMUP = 20_000;
+    private static final int INDEX_QUERIES = 200_000;
+    private static final int SQL_QUERIES = 2_000;
+
+    private static List<UserResponse> users;
+    private static String[] prefixes;
+
+    @BeforeAll
+    static void generateUsers() {
+        int count = Integer.getInteger("benchmark.users", 1_000_000);
+        Random random = new Random(42);
+        users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            String role = ROLES[random.nextInt(10) < 7 ? 0 : random.nextInt(10) < 8 ? 1 : 2];
+            users.add(new UserResponse(id, randomName(random) + id, role));
+        }
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = randomName(random).substring(0, 2 + random.nextInt(2));
+        }
+    }
+
+    @Test
+    void prefixIndex() {
+        long start = System.nanoTime();
+        UsernamePrefixIndex index = new UsernamePrefixIndex();
+        users.forEach(index::add);
+        System.out.printf("Index: built over %d users in %d ms%n", index.size(), (System.nanoTime() - start) / 1_000_000);
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += index.search(prefixes[i % prefixes.length], ROLE, LIMIT).size();
+        }
+        long[] samples = new long[INDEX_QUERIES];
+        for (int i = 0; i < INDEX_QUERIES; i++) {
+            long t = System.nanoTime();
+            sink += index.search(prefixes[i % prefixes.length], ROLE, LIMIT).size();
+            samples[i] = System.nanoTime() - t;
+        }
+        report("Index", samples, sink);
+    }
+
+    @Test
+    void likeQuery() throws SQLException {
+        Connection connection = connect();
+        Assumptions.assumeTrue(connection != null, "Postgres is not reachable");
+        try (connection) {
+            load(connection);
+            String sql = "SELECT id, username, role FROM bench_users "
+                    + "WHERE role = ? AND lower(username) LIKE ? ORDER BY lower(username) LIMIT ?";
+            try (PreparedStatement query = connection.prepareStatement(sql)) {
+                long sink = 0;
+                for (int i = 0; i < SQL_QUERIES / 10; i++) {
+                    sink += run(query, prefixes[i % prefixes.length]);
+                }
+                long[] samples = new long[SQL_QUERIES];
+                for (int i = 0; i < SQL_QUERIES; i++) {
+                    long t = System.nanoTime();
+                    sink += run(query, prefixes[i % prefixes.length]);
+                    samples[i] = System.nanoTime() - t;
+                }
+                report("LIKE", samples, sink);
+            }
+        }
+    }
+
+    private static Connection connect() {
+        String url = System.getProperty("benchmark.jdbc.url",
+                "jdbc:postgresql://localhost:5433/SmartDelivery?reWriteBatchedInserts=true");
+        try {
+            return DriverManager.getConnection(url,
+                    System.getProperty("benchmark.jdbc.username", "timofey"),
+                    System.getProperty("benchmark.jdbc.password", "password"));
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static void load(Connection connection) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TEMPORARY TABLE bench_users (id bigint PRIMARY KEY, username varchar(255), role varchar(255))");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bench_users VALUES (?, ?, ?)")) {
+            int pending = 0;
+            for (UserResponse user : users) {
+                insert.setLong(1, user.getId());
+                insert.setString(2, user.getUsername());
+                insert.setString(3, user.getRole());
+                insert.addBatch();
+                if (++pending == 5_000) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE INDEX ON bench_users (role, lower(username) text_pattern_ops)");
+            ddl.execute("ANALYZE bench_users");
+        }
+        System.out.printf("LIKE: loaded %d users in %d ms%n", users.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static int run(PreparedStatement query, String prefix) throws SQLException {
+        query.setString(1, ROLE);
+        query.setString(2, prefix + "%");
+        query.setInt(3, LIMIT);
+        int rows = 0;
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static void report(String name, long[] samples, long sink) {
+        Arrays.sort(samples);
+        double mean = Arrays.stream(samples).average().orElse(0) / 1_000;
+        System.out.printf("%s: %d queries, mean %.1f us, p50 %.1f us, p99 %.1f us (%d rows)%n", name, samples.length,
+                mean, samples[samples.length / 2] / 1_000.0, samples[(int) (samples.length * 0.99)] / 1_000.0, sink);
+    }
+
+    private static String randomName(Random random) {
+        char[] name = new char[6 + random.nextInt(6)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(name);
+    }
+}